@@ -0,0 +1,24 @@
+#!/bin/bash
+
+# 로컬 임베딩 모델 다운로드 스크립트
+# embedding.provider=local에서 사용할 ONNX 모델(384차원)과 tokenizer.json을 받습니다.
+
+set -e
+
+REPO="${EMBEDDING_MODEL_REPO:-Xenova/paraphrase-multilingual-MiniLM-L12-v2}"
+MODEL_DIR="${EMBEDDING_MODEL_DIR:-models/paraphrase-multilingual-MiniLM-L12-v2}"
+BASE_URL="https://huggingface.co/$REPO/resolve/main"
+
+mkdir -p "$MODEL_DIR"
+
+echo "📦 $REPO 모델 다운로드 중..."
+
+curl -fL --retry 3 -o "$MODEL_DIR/model.onnx" "$BASE_URL/onnx/model.onnx"
+curl -fL --retry 3 -o "$MODEL_DIR/tokenizer.json" "$BASE_URL/tokenizer.json"
+
+echo "✅ 다운로드 완료!"
+echo "   - 모델: $MODEL_DIR/model.onnx"
+echo "   - 토크나이저: $MODEL_DIR/tokenizer.json"
+echo ""
+echo "   EMBEDDING_PROVIDER=local 로 실행하면 이 모델을 사용합니다."
+echo "⚠️  provider를 바꾸면 기존 임베딩과 벡터 공간이 달라지므로 기존 게시글의 임베딩을 다시 생성해야 합니다."
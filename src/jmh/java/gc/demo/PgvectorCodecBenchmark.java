@@ -0,0 +1,95 @@
+package gc.demo;
+
+import com.pgvector.PGvector;
+import gc.demo.converter.PgvectorStringFloatArrayConverter;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.sql.SQLException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * post.embedding 한 행을 텍스트 포맷({@code [0.1,...]})과 pgvector 바이너리 포맷으로 인코딩/디코딩하는 비용 비교.
+ * {@code wireBytes} 보조 카운터를 ops 수로 나누면 행당 전송 바이트가 됩니다
+ * (384차원 기준 바이너리는 4 + 4 * 384 = 1540바이트 고정).
+ * 서버 측 float_in/float_out 비용은 포함되지 않으므로 실제 절감폭은 이보다 큽니다.
+ *
+ * <pre>./gradlew jmh -Pjmh.includes=PgvectorCodec</pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PgvectorCodecBenchmark {
+
+    @Param({"384"})
+    public int dimension;
+
+    private final PgvectorStringFloatArrayConverter converter = new PgvectorStringFloatArrayConverter();
+    private float[] vector;
+    private String text;
+    private byte[] binary;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Wire {
+        public long wireBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            wireBytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        vector = new float[dimension];
+        for (int i = 0; i < dimension; i++) {
+            vector[i] = (float) random.nextGaussian() / 20f;
+        }
+        text = converter.convertToDatabaseColumn(vector);
+        PGvector pgvector = new PGvector(vector);
+        binary = new byte[pgvector.lengthInBytes()];
+        pgvector.toBytes(binary, 0);
+    }
+
+    @Benchmark
+    public String textEncode(Wire wire) {
+        String encoded = converter.convertToDatabaseColumn(vector);
+        // 텍스트 포맷은 ASCII라 문자 수가 곧 전송 바이트 수입니다. getBytes로 세면 그 비용까지 측정에 들어갑니다.
+        wire.wireBytes += encoded.length();
+        return encoded;
+    }
+
+    @Benchmark
+    public float[] textDecode(Wire wire) {
+        wire.wireBytes += text.length();
+        return converter.convertToEntityAttribute(text);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode(Wire wire) {
+        PGvector pgvector = new PGvector(vector);
+        byte[] encoded = new byte[pgvector.lengthInBytes()];
+        pgvector.toBytes(encoded, 0);
+        wire.wireBytes += encoded.length;
+        return encoded;
+    }
+
+    @Benchmark
+    public float[] binaryDecode(Wire wire) throws SQLException {
+        PGvector pgvector = new PGvector();
+        pgvector.setByteValue(binary, 0);
+        wire.wireBytes += binary.length;
+        return pgvector.toArray();
+    }
+}
@@ -0,0 +1,64 @@
+package gc.demo;
+
+import gc.demo.converter.PgvectorStringFloatArrayConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PgvectorStringFloatArrayConverter의 텍스트 파싱/출력 비용.
+ * {@code serverText}는 PostgreSQL이 돌려주는 형태(최단 표현)를, {@code ownText}는 변환기가 쓴 형태를 파싱합니다.
+ * 행당 할당량은 GC 프로파일러로 확인합니다.
+ *
+ * <pre>./gradlew jmh -Pjmh.includes=PgvectorTextConverter  (build.gradle의 jmh 블록에 profilers = ['gc'] 추가)</pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PgvectorTextConverterBenchmark {
+
+    @Param({"384"})
+    public int dimension;
+
+    private final PgvectorStringFloatArrayConverter converter = new PgvectorStringFloatArrayConverter();
+    private float[] vector;
+    private String serverText;
+    private String ownText;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        vector = new float[dimension];
+        StringJoiner joiner = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < dimension; i++) {
+            vector[i] = (float) random.nextGaussian() / 20f;
+            joiner.add(Float.toString(vector[i]));
+        }
+        serverText = joiner.toString();
+        ownText = converter.convertToDatabaseColumn(vector);
+    }
+
+    @Benchmark
+    public float[] parseServerText() {
+        return converter.convertToEntityAttribute(serverText);
+    }
+
+    @Benchmark
+    public float[] parseOwnText() {
+        return converter.convertToEntityAttribute(ownText);
+    }
+
+    @Benchmark
+    public String write() {
+        return converter.convertToDatabaseColumn(vector);
+    }
+}
@@ -0,0 +1,217 @@
+package gc.demo;
+
+import gc.demo.search.VectorMath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * 양자화 1단계 검색 + float32 재정렬의 recall@k와 지연시간.
+ * 군집이 있는 합성 임베딩으로 float32 전수 비교(정답), halfvec(가수 10비트로 반올림), binary(부호 비트 + 해밍 거리)
+ * 각각에서 limit × rerankFactor개를 뽑아 float32로 다시 정렬합니다. recall@k는 셋업 시 표준 출력으로 보고하고,
+ * 지연시간은 쿼리당 평균입니다. DB 인덱스가 아니라 같은 표현으로 전수 비교한 결과이므로 recall 손실의 상한을 보여줍니다.
+ * 저장 크기는 float32 4 × 384 = 1536바이트, halfvec 768바이트(1/2), binary 48바이트(1/32)입니다.
+ *
+ * <pre>./gradlew jmh -Pjmh.includes=QuantizedRecall</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QuantizedRecallBenchmark {
+    private static final int DIMENSION = 384;
+    private static final int CLUSTERS = 64;
+    private static final int QUERIES = 100;
+    private static final int K = 10;
+
+    @Param({"20000"})
+    public int size;
+
+    @Param({"1", "4", "10"})
+    public int rerankFactor;
+
+    private float[][] vectors;
+    private float[][] halfVectors;
+    private long[][] bits;
+    private float[][] queries;
+    private long[][] queryBits;
+    private int query;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        float[][] centroids = new float[CLUSTERS][];
+        for (int c = 0; c < CLUSTERS; c++) {
+            centroids[c] = gaussian(random, 1f);
+        }
+        vectors = new float[size][];
+        halfVectors = new float[size][];
+        bits = new long[size][];
+        for (int i = 0; i < size; i++) {
+            float[] noise = gaussian(random, 0.6f);
+            float[] centroid = centroids[random.nextInt(CLUSTERS)];
+            for (int d = 0; d < DIMENSION; d++) {
+                noise[d] += centroid[d];
+            }
+            vectors[i] = normalize(noise);
+            halfVectors[i] = toHalfPrecision(vectors[i]);
+            bits[i] = binaryQuantize(vectors[i]);
+        }
+        queries = new float[QUERIES][];
+        queryBits = new long[QUERIES][];
+        for (int q = 0; q < QUERIES; q++) {
+            float[] perturbed = gaussian(random, 0.3f);
+            float[] base = vectors[random.nextInt(size)];
+            for (int d = 0; d < DIMENSION; d++) {
+                perturbed[d] += base[d] * 4f;
+            }
+            queries[q] = normalize(perturbed);
+            queryBits[q] = binaryQuantize(queries[q]);
+        }
+        reportRecall();
+    }
+
+    @Benchmark
+    public int[] exact() {
+        float[] q = nextQuery();
+        return topK(size, i -> VectorMath.cosineSimilarity(q, vectors[i]), K);
+    }
+
+    @Benchmark
+    public int[] halfvecRerank() {
+        float[] q = nextQuery();
+        return rerank(q, halfvecCandidates(q, K * rerankFactor));
+    }
+
+    @Benchmark
+    public int[] binaryRerank() {
+        int index = query;
+        float[] q = nextQuery();
+        return rerank(q, binaryCandidates(queryBits[index], K * rerankFactor));
+    }
+
+    private int[] halfvecCandidates(float[] q, int candidates) {
+        return topK(size, i -> VectorMath.cosineSimilarity(q, halfVectors[i]), candidates);
+    }
+
+    private int[] binaryCandidates(long[] q, int candidates) {
+        return topK(size, i -> -hamming(q, bits[i]), candidates);
+    }
+
+    private int[] rerank(float[] q, int[] candidates) {
+        int[] ranked = topK(candidates.length, i -> VectorMath.cosineSimilarity(q, vectors[candidates[i]]), K);
+        for (int i = 0; i < ranked.length; i++) {
+            ranked[i] = candidates[ranked[i]];
+        }
+        return ranked;
+    }
+
+    private float[] nextQuery() {
+        float[] q = queries[query];
+        query = (query + 1) % QUERIES;
+        return q;
+    }
+
+    private void reportRecall() {
+        double half = 0;
+        double binary = 0;
+        for (int q = 0; q < QUERIES; q++) {
+            float[] probe = queries[q];
+            int[] truth = topK(size, i -> VectorMath.cosineSimilarity(probe, vectors[i]), K);
+            half += recall(truth, rerank(probe, halfvecCandidates(probe, K * rerankFactor)));
+            binary += recall(truth, rerank(probe, binaryCandidates(queryBits[q], K * rerankFactor)));
+        }
+        System.out.printf("%nrecall@%d (size=%d, rerankFactor=%d): halfvec=%.3f binary=%.3f%n",
+                K, size, rerankFactor, half / QUERIES, binary / QUERIES);
+    }
+
+    private static double recall(int[] truth, int[] found) {
+        Set<Integer> expected = new HashSet<>();
+        for (int id : truth) {
+            expected.add(id);
+        }
+        return Arrays.stream(found).filter(expected::contains).count() / (double) truth.length;
+    }
+
+    // 점수 내림차순 상위 k개의 인덱스
+    private static int[] topK(int n, IntToDoubleFunction score, int k) {
+        PriorityQueue<double[]> heap = new PriorityQueue<>(k + 1, (a, b) -> Double.compare(a[0], b[0]));
+        for (int i = 0; i < n; i++) {
+            double s = score.applyAsDouble(i);
+            if (heap.size() < k) {
+                heap.add(new double[]{s, i});
+            } else if (s > heap.peek()[0]) {
+                heap.poll();
+                heap.add(new double[]{s, i});
+            }
+        }
+        int[] result = new int[heap.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = (int) heap.poll()[1];
+        }
+        return result;
+    }
+
+    private static int hamming(long[] a, long[] b) {
+        int distance = 0;
+        for (int i = 0; i < a.length; i++) {
+            distance += Long.bitCount(a[i] ^ b[i]);
+        }
+        return distance;
+    }
+
+    // pgvector binary_quantize와 같이 양수 성분을 1로 둡니다.
+    private static long[] binaryQuantize(float[] vector) {
+        long[] words = new long[(vector.length + 63) / 64];
+        for (int i = 0; i < vector.length; i++) {
+            if (vector[i] > 0) {
+                words[i >> 6] |= 1L << (i & 63);
+            }
+        }
+        return words;
+    }
+
+    // float16 정밀도 흉내: 가수를 10비트로 반올림(지수 범위 축소는 임베딩 값 범위에서 무시)
+    private static float[] toHalfPrecision(float[] vector) {
+        float[] half = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            int bits = Float.floatToRawIntBits(vector[i]);
+            int rounded = (bits + 0x0FFF + ((bits >> 13) & 1)) & 0xFFFFE000;
+            half[i] = Float.intBitsToFloat(rounded);
+        }
+        return half;
+    }
+
+    private static float[] gaussian(Random random, float scale) {
+        float[] vector = new float[DIMENSION];
+        for (int d = 0; d < DIMENSION; d++) {
+            vector[d] = (float) random.nextGaussian() * scale;
+        }
+        return vector;
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        float inverse = (float) (1 / Math.sqrt(norm));
+        for (int d = 0; d < vector.length; d++) {
+            vector[d] *= inverse;
+        }
+        return vector;
+    }
+}
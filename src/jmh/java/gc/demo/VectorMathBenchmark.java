@@ -0,0 +1,108 @@
+package gc.demo;
+
+import gc.demo.search.VectorMath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 384차원 임베딩의 코사인 유사도: 이전 스칼라 루프(double 누산) 대비 {@link VectorMath}.
+ * {@code -Dgc.demo.simd=false}를 jvmArgs에 더하면 스칼라 커널 수치를 볼 수 있습니다.
+ * <pre>./gradlew jmh -Pjmh.includes=VectorMath</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class VectorMathBenchmark {
+    private static final int DIMENSION = 384;
+
+    @Param({"1000"})
+    public int rows;
+
+    private float[] query;
+    private float[] other;
+    private float[][] vectors;
+    private float[] matrix;
+    private float[] scores;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(3);
+        query = randomVector(random, DIMENSION);
+        other = randomVector(random, DIMENSION);
+        vectors = new float[rows][];
+        matrix = new float[rows * DIMENSION];
+        for (int row = 0; row < rows; row++) {
+            vectors[row] = randomVector(random, DIMENSION);
+            System.arraycopy(vectors[row], 0, matrix, row * DIMENSION, DIMENSION);
+        }
+        scores = new float[rows];
+        System.out.println("\nVectorMath implementation: " + VectorMath.implementation());
+    }
+
+    @Benchmark
+    public double cosineBaseline() {
+        return baselineCosine(query, other);
+    }
+
+    @Benchmark
+    public double cosine() {
+        return VectorMath.cosineSimilarity(query, other);
+    }
+
+    @Benchmark
+    public float dot() {
+        return VectorMath.dot(query, other);
+    }
+
+    @Benchmark
+    public float squaredL2() {
+        return VectorMath.squaredL2(query, other);
+    }
+
+    @Benchmark
+    public float[] cosineAllBaseline() {
+        for (int row = 0; row < rows; row++) {
+            scores[row] = (float) baselineCosine(query, vectors[row]);
+        }
+        return scores;
+    }
+
+    @Benchmark
+    public float[] cosineAll() {
+        VectorMath.cosineAll(query, matrix, rows, scores);
+        return scores;
+    }
+
+    // 이전 SearchService.calculateSimilarity와 같은 루프
+    private static double baselineCosine(float[] a, float[] b) {
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        if (normA == 0 || normB == 0) {
+            return 0;
+        }
+        return dot / (Math.sqrt(normA) * Math.sqrt(normB));
+    }
+
+    private static float[] randomVector(Random random, int dimension) {
+        float[] vector = new float[dimension];
+        for (int i = 0; i < dimension; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
@@ -1,12 +1,16 @@
 package gc.demo;
 
+import gc.demo.config.EmbeddingProperties;
+import gc.demo.config.FeedProperties;
 import gc.demo.config.OpenAIProperties;
+import gc.demo.config.SearchProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
 @SpringBootApplication
-@EnableConfigurationProperties(OpenAIProperties.class)
+@EnableConfigurationProperties({OpenAIProperties.class, SearchProperties.class, EmbeddingProperties.class,
+        FeedProperties.class})
 public class DemoApplication {
     public static void main(String[] args) {
         SpringApplication.run(DemoApplication.class, args);
@@ -0,0 +1,47 @@
+package gc.demo.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor embeddingExecutor(EmbeddingProperties embeddingProperties) {
+        int workers = Math.max(1, embeddingProperties.getOutbox().getWorkers());
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("embedding-");
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    // 검색 요청 안에서 벡터/전문 검색을 병렬로 돌리는 풀. 큐가 가득 차면 거절되어 해당 검색 단계만 건너뜁니다.
+    @Bean
+    public ThreadPoolTaskExecutor searchExecutor(SearchProperties searchProperties) {
+        int workers = Math.max(2, searchProperties.getHybrid().getWorkers());
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("search-");
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(workers * 16);
+        return executor;
+    }
+
+    // 관련 게시글 재계산은 한 스레드에서 차례로 처리해 같은 게시글의 목록을 동시에 갈아 끼우지 않습니다.
+    @Bean
+    public ThreadPoolTaskExecutor relatedPostsExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("related-");
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -0,0 +1,212 @@
+package gc.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "embedding")
+public class EmbeddingProperties {
+    private Provider provider = Provider.OPENAI;
+    private final Local local = new Local();
+    private final Cache cache = new Cache();
+    private final Outbox outbox = new Outbox();
+
+    public Provider getProvider() {
+        return provider;
+    }
+
+    public void setProvider(Provider provider) {
+        this.provider = provider;
+    }
+
+    public Local getLocal() {
+        return local;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Outbox getOutbox() {
+        return outbox;
+    }
+
+    public enum Provider {
+        OPENAI,
+        LOCAL
+    }
+
+    /**
+     * embedding.provider=local일 때 프로세스 안에서 실행하는 ONNX 문장 임베딩 모델(출력 384차원).
+     * model-path는 ONNX 모델, tokenizer-path는 HuggingFace tokenizer.json 파일입니다.
+     */
+    public static class Local {
+        private String modelName = "paraphrase-multilingual-MiniLM-L12-v2";
+        private String modelPath = "models/paraphrase-multilingual-MiniLM-L12-v2/model.onnx";
+        private String tokenizerPath = "models/paraphrase-multilingual-MiniLM-L12-v2/tokenizer.json";
+        // 모델의 최대 위치 수보다 길면 잘라냅니다. 길수록 정확하지만 연산량이 길이의 제곱으로 늘어납니다.
+        private int maxTokens = 256;
+        private int batchSize = 32;
+        // 추론 한 번에 쓰는 스레드 수. 0이면 ONNX Runtime 기본값(물리 코어 수)
+        private int intraOpThreads = 0;
+
+        public String getModelName() {
+            return modelName;
+        }
+
+        public void setModelName(String modelName) {
+            this.modelName = modelName;
+        }
+
+        public String getModelPath() {
+            return modelPath;
+        }
+
+        public void setModelPath(String modelPath) {
+            this.modelPath = modelPath;
+        }
+
+        public String getTokenizerPath() {
+            return tokenizerPath;
+        }
+
+        public void setTokenizerPath(String tokenizerPath) {
+            this.tokenizerPath = tokenizerPath;
+        }
+
+        public int getMaxTokens() {
+            return maxTokens;
+        }
+
+        public void setMaxTokens(int maxTokens) {
+            this.maxTokens = maxTokens;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getIntraOpThreads() {
+            return intraOpThreads;
+        }
+
+        public void setIntraOpThreads(int intraOpThreads) {
+            this.intraOpThreads = intraOpThreads;
+        }
+    }
+
+    /**
+     * (model, hash(text)) 키의 임베딩 캐시. 1단계는 메모리, 2단계는 선택적인 embedding_cache 테이블입니다.
+     */
+    public static class Cache {
+        private boolean enabled = true;
+        private long maxSize = 10_000;
+        private boolean persistent = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(long maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public boolean isPersistent() {
+            return persistent;
+        }
+
+        public void setPersistent(boolean persistent) {
+            this.persistent = persistent;
+        }
+    }
+
+    /**
+     * 게시글 저장과 같은 트랜잭션에 적재된 embedding_outbox 행을 백그라운드에서 처리하는 워커 설정.
+     */
+    public static class Outbox {
+        private long pollIntervalMs = 1000;
+        private int batchSize = 16;
+        private int workers = 4;
+        private int maxAttempts = 8;
+        private long initialBackoffMs = 2_000;
+        private long maxBackoffMs = 600_000;
+        // 제공자가 호출을 거절했을 때(서킷 열림 등) 시도 횟수를 쓰지 않고 다시 잡기까지 기다리는 시간
+        private long unavailableRetryMs = 30_000;
+        // 처리 중인 행을 다른 폴러가 다시 잡지 않도록 미뤄 두는 시간
+        private long leaseMs = 120_000;
+
+        public long getPollIntervalMs() {
+            return pollIntervalMs;
+        }
+
+        public void setPollIntervalMs(long pollIntervalMs) {
+            this.pollIntervalMs = pollIntervalMs;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public void setWorkers(int workers) {
+            this.workers = workers;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getInitialBackoffMs() {
+            return initialBackoffMs;
+        }
+
+        public void setInitialBackoffMs(long initialBackoffMs) {
+            this.initialBackoffMs = initialBackoffMs;
+        }
+
+        public long getMaxBackoffMs() {
+            return maxBackoffMs;
+        }
+
+        public void setMaxBackoffMs(long maxBackoffMs) {
+            this.maxBackoffMs = maxBackoffMs;
+        }
+
+        public long getUnavailableRetryMs() {
+            return unavailableRetryMs;
+        }
+
+        public void setUnavailableRetryMs(long unavailableRetryMs) {
+            this.unavailableRetryMs = unavailableRetryMs;
+        }
+
+        public long getLeaseMs() {
+            return leaseMs;
+        }
+
+        public void setLeaseMs(long leaseMs) {
+            this.leaseMs = leaseMs;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package gc.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "feed")
+public class FeedProperties {
+    private final Cache cache = new Cache();
+    private final Listing listing = new Listing();
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Listing getListing() {
+        return listing;
+    }
+
+    /**
+     * 페이지 기반 목록의 전체 개수 계산 방식. EXACT는 요청마다 count(*), CACHED는 정확한 값을 게시글이 바뀔 때까지 재사용,
+     * ESTIMATED는 플래너 통계(pg_class.reltuples 기반 추정 행 수)를 씁니다.
+     */
+    public enum CountStrategy {
+        EXACT, CACHED, ESTIMATED
+    }
+
+    /**
+     * 타입(전체/admin/community)별 피드 앞부분을 메모리에 두는 캐시. depth개까지의 최신 게시글로 첫 페이지와
+     * 그 범위 안의 다음 페이지를 DB 없이 응답하며, 게시글이 바뀌면 버리고 다음 요청에서 다시 읽습니다.
+     */
+    public static class Cache {
+        private boolean enabled = true;
+        private int depth = 100;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        public void setDepth(int depth) {
+            this.depth = depth;
+        }
+    }
+
+    public static class Listing {
+        private CountStrategy countStrategy = CountStrategy.CACHED;
+
+        public CountStrategy getCountStrategy() {
+            return countStrategy;
+        }
+
+        public void setCountStrategy(CountStrategy countStrategy) {
+            this.countStrategy = countStrategy;
+        }
+    }
+}
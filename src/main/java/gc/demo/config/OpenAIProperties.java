@@ -5,8 +5,14 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties(prefix = "openai")
 public class OpenAIProperties {
     private String apiKey;
-    private String model = "text-embedding-ada-002";
+    private String model = "text-embedding-3-small";
     private String endpoint = "https://api.openai.com/v1/embeddings";
+    // embedAll 한 요청당 최대 입력 수(API 상한 2048)와 추정 토큰 예산(API 상한 300k)
+    private int batchSize = 256;
+    private long maxBatchTokens = 250_000;
+    private long connectTimeoutMs = 2_000;
+    private long readTimeoutMs = 10_000;
+    private final Resilience resilience = new Resilience();
 
     public String getApiKey() {
         return apiKey;
@@ -31,4 +37,148 @@ public class OpenAIProperties {
     public void setEndpoint(String endpoint) {
         this.endpoint = endpoint;
     }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getMaxBatchTokens() {
+        return maxBatchTokens;
+    }
+
+    public void setMaxBatchTokens(long maxBatchTokens) {
+        this.maxBatchTokens = maxBatchTokens;
+    }
+
+    public long getConnectTimeoutMs() {
+        return connectTimeoutMs;
+    }
+
+    public void setConnectTimeoutMs(long connectTimeoutMs) {
+        this.connectTimeoutMs = connectTimeoutMs;
+    }
+
+    public long getReadTimeoutMs() {
+        return readTimeoutMs;
+    }
+
+    public void setReadTimeoutMs(long readTimeoutMs) {
+        this.readTimeoutMs = readTimeoutMs;
+    }
+
+    public Resilience getResilience() {
+        return resilience;
+    }
+
+    /**
+     * 임베딩 API 호출을 감싸는 서킷 브레이커와 동시 호출 제한(bulkhead) 설정.
+     */
+    public static class Resilience {
+        // 최근 slidingWindowSize건 중 실패율 또는 느린 호출 비율이 임계값(%)을 넘으면 openStateMs 동안 호출을 막습니다.
+        private int slidingWindowSize = 20;
+        private int minimumCalls = 10;
+        private float failureRateThreshold = 50;
+        private long slowCallDurationMs = 5_000;
+        private float slowCallRateThreshold = 80;
+        private long openStateMs = 30_000;
+        private int halfOpenCalls = 3;
+        // 동시에 진행할 수 있는 호출 수. 자리가 없으면 maxWaitMs만큼 기다린 뒤 포기합니다.
+        private int maxConcurrentCalls = 8;
+        private long maxWaitMs = 0;
+        // 아웃박스와 동기화 같은 백그라운드 생성은 검색과 자리를 다투지 않도록 별도 한도를 쓰고, 자리가 날 때까지 잠시 기다립니다.
+        private int backgroundMaxConcurrentCalls = 4;
+        private long backgroundMaxWaitMs = 5_000;
+
+        public int getSlidingWindowSize() {
+            return slidingWindowSize;
+        }
+
+        public void setSlidingWindowSize(int slidingWindowSize) {
+            this.slidingWindowSize = slidingWindowSize;
+        }
+
+        public int getMinimumCalls() {
+            return minimumCalls;
+        }
+
+        public void setMinimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+        }
+
+        public float getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(float failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public long getSlowCallDurationMs() {
+            return slowCallDurationMs;
+        }
+
+        public void setSlowCallDurationMs(long slowCallDurationMs) {
+            this.slowCallDurationMs = slowCallDurationMs;
+        }
+
+        public float getSlowCallRateThreshold() {
+            return slowCallRateThreshold;
+        }
+
+        public void setSlowCallRateThreshold(float slowCallRateThreshold) {
+            this.slowCallRateThreshold = slowCallRateThreshold;
+        }
+
+        public long getOpenStateMs() {
+            return openStateMs;
+        }
+
+        public void setOpenStateMs(long openStateMs) {
+            this.openStateMs = openStateMs;
+        }
+
+        public int getHalfOpenCalls() {
+            return halfOpenCalls;
+        }
+
+        public void setHalfOpenCalls(int halfOpenCalls) {
+            this.halfOpenCalls = halfOpenCalls;
+        }
+
+        public int getMaxConcurrentCalls() {
+            return maxConcurrentCalls;
+        }
+
+        public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+        }
+
+        public long getMaxWaitMs() {
+            return maxWaitMs;
+        }
+
+        public void setMaxWaitMs(long maxWaitMs) {
+            this.maxWaitMs = maxWaitMs;
+        }
+
+        public int getBackgroundMaxConcurrentCalls() {
+            return backgroundMaxConcurrentCalls;
+        }
+
+        public void setBackgroundMaxConcurrentCalls(int backgroundMaxConcurrentCalls) {
+            this.backgroundMaxConcurrentCalls = backgroundMaxConcurrentCalls;
+        }
+
+        public long getBackgroundMaxWaitMs() {
+            return backgroundMaxWaitMs;
+        }
+
+        public void setBackgroundMaxWaitMs(long backgroundMaxWaitMs) {
+            this.backgroundMaxWaitMs = backgroundMaxWaitMs;
+        }
+    }
 }
@@ -0,0 +1,384 @@
+package gc.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+@ConfigurationProperties(prefix = "search")
+public class SearchProperties {
+    private Engine engine = Engine.PGVECTOR;
+    private final VectorIndex vectorIndex = new VectorIndex();
+    private final Hnsw hnsw = new Hnsw();
+    private final FullText fullText = new FullText();
+    private final Fuzzy fuzzy = new Fuzzy();
+    private final Hybrid hybrid = new Hybrid();
+    private final Cache cache = new Cache();
+    private final Related related = new Related();
+    private final Suggest suggest = new Suggest();
+
+    public Engine getEngine() {
+        return engine;
+    }
+
+    public void setEngine(Engine engine) {
+        this.engine = engine;
+    }
+
+    public VectorIndex getVectorIndex() {
+        return vectorIndex;
+    }
+
+    public Hnsw getHnsw() {
+        return hnsw;
+    }
+
+    public FullText getFullText() {
+        return fullText;
+    }
+
+    public Fuzzy getFuzzy() {
+        return fuzzy;
+    }
+
+    public Hybrid getHybrid() {
+        return hybrid;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Related getRelated() {
+        return related;
+    }
+
+    public Suggest getSuggest() {
+        return suggest;
+    }
+
+    public enum Engine {
+        PGVECTOR, HNSW
+    }
+
+    public enum IndexType {
+        NONE, HNSW, IVFFLAT
+    }
+
+    /**
+     * ANN 인덱스를 만들 표현. NONE은 float32 원본, HALFVEC은 float16(메모리 1/2), BINARY는 부호 비트(메모리 1/32)이며
+     * 양자화한 경우 인덱스로 후보를 넉넉히 뽑은 뒤 float32 원본으로 다시 정렬합니다.
+     */
+    public enum Quantization {
+        NONE, HALFVEC, BINARY
+    }
+
+    /**
+     * post.embedding 컬럼의 근사 최근접 이웃(ANN) 인덱스 설정.
+     * 빌드 파라미터(m, efConstruction, lists)는 인덱스가 새로 만들어질 때만 반영됩니다.
+     */
+    public static class VectorIndex {
+        private IndexType type = IndexType.HNSW;
+        private int m = 16;
+        private int efConstruction = 64;
+        private int lists = 100;
+        private int efSearch = 40;
+        private int probes = 1;
+        private Quantization quantization = Quantization.NONE;
+        private int rerankFactor = 4;
+
+        public IndexType getType() {
+            return type;
+        }
+
+        public void setType(IndexType type) {
+            this.type = type;
+        }
+
+        public int getM() {
+            return m;
+        }
+
+        public void setM(int m) {
+            this.m = m;
+        }
+
+        public int getEfConstruction() {
+            return efConstruction;
+        }
+
+        public void setEfConstruction(int efConstruction) {
+            this.efConstruction = efConstruction;
+        }
+
+        public int getLists() {
+            return lists;
+        }
+
+        public void setLists(int lists) {
+            this.lists = lists;
+        }
+
+        public int getEfSearch() {
+            return efSearch;
+        }
+
+        public void setEfSearch(int efSearch) {
+            this.efSearch = efSearch;
+        }
+
+        public int getProbes() {
+            return probes;
+        }
+
+        public void setProbes(int probes) {
+            this.probes = probes;
+        }
+
+        public Quantization getQuantization() {
+            return quantization;
+        }
+
+        public void setQuantization(Quantization quantization) {
+            this.quantization = quantization;
+        }
+
+        /**
+         * 양자화 인덱스에서 limit의 몇 배를 후보로 뽑아 재정렬할지. 클수록 recall이 오르고 느려집니다.
+         */
+        public int getRerankFactor() {
+            return rerankFactor;
+        }
+
+        public void setRerankFactor(int rerankFactor) {
+            this.rerankFactor = rerankFactor;
+        }
+    }
+
+    /**
+     * search.engine=hnsw일 때 사용하는 JVM 내부 HNSW 그래프 설정.
+     */
+    public static class Hnsw {
+        private int m = 16;
+        private int efConstruction = 100;
+        private int efSearch = 64;
+
+        public int getM() {
+            return m;
+        }
+
+        public void setM(int m) {
+            this.m = m;
+        }
+
+        public int getEfConstruction() {
+            return efConstruction;
+        }
+
+        public void setEfConstruction(int efConstruction) {
+            this.efConstruction = efConstruction;
+        }
+
+        public int getEfSearch() {
+            return efSearch;
+        }
+
+        public void setEfSearch(int efSearch) {
+            this.efSearch = efSearch;
+        }
+    }
+
+    /**
+     * post.search_vector(tsvector)를 만들 때 쓰는 텍스트 검색 설정 목록.
+     * 각 설정으로 만든 벡터를 합치므로 한국어처럼 형태소 분석기가 없는 언어는 simple(공백 단위 토큰)로,
+     * 영어는 english(어간 추출)로 함께 찾을 수 있습니다. 목록이 바뀌면 기동 시 컬럼을 다시 생성합니다.
+     */
+    public static class FullText {
+        private static final Pattern CONFIG_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+
+        private List<String> configs = new ArrayList<>(List.of("simple", "english"));
+
+        public List<String> getConfigs() {
+            return configs;
+        }
+
+        public void setConfigs(List<String> configs) {
+            // DDL과 쿼리에 리터럴로 들어가므로 식별자 형태만 허용합니다.
+            for (String config : configs) {
+                if (!CONFIG_NAME.matcher(config).matches()) {
+                    throw new IllegalArgumentException("Invalid text search configuration: " + config);
+                }
+            }
+            this.configs = configs;
+        }
+    }
+
+    /**
+     * pg_trgm 기반 오타 허용 검색의 단어 유사도(word_similarity) 하한. 0~1 사이이며 낮을수록 더 많이 일치합니다.
+     */
+    public static class Fuzzy {
+        private double titleThreshold = 0.5;
+        private double contentThreshold = 0.6;
+
+        public double getTitleThreshold() {
+            return titleThreshold;
+        }
+
+        public void setTitleThreshold(double titleThreshold) {
+            this.titleThreshold = titleThreshold;
+        }
+
+        public double getContentThreshold() {
+            return contentThreshold;
+        }
+
+        public void setContentThreshold(double contentThreshold) {
+            this.contentThreshold = contentThreshold;
+        }
+    }
+
+    /**
+     * mode=hybrid에서 벡터/전문 검색을 동시에 실행하고 Reciprocal Rank Fusion으로 합치는 설정.
+     * budgetMs 안에 끝나지 않은 쪽은 버리고 끝난 쪽 결과만 합칩니다.
+     */
+    public static class Hybrid {
+        private long budgetMs = 1500;
+        private int rrfK = 60;
+        private int depth = 50;
+        private int workers = 8;
+
+        public long getBudgetMs() {
+            return budgetMs;
+        }
+
+        public void setBudgetMs(long budgetMs) {
+            this.budgetMs = budgetMs;
+        }
+
+        public int getRrfK() {
+            return rrfK;
+        }
+
+        public void setRrfK(int rrfK) {
+            this.rrfK = rrfK;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        public void setDepth(int depth) {
+            this.depth = depth;
+        }
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public void setWorkers(int workers) {
+            this.workers = workers;
+        }
+    }
+
+    /**
+     * 정규화된 질의어 임베딩 캐시와 top-k 결과 캐시. 결과 캐시는 게시글 변경 시 전부 무효화되므로 TTL은
+     * 다른 인스턴스에서 일어난 변경이 늦게 보이는 최대 시간입니다.
+     */
+    public static class Cache {
+        private boolean enabled = true;
+        private long queryEmbeddingTtlMs = 3_600_000;
+        private long queryEmbeddingMaxSize = 10_000;
+        private long resultTtlMs = 30_000;
+        private long resultMaxSize = 1_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getQueryEmbeddingTtlMs() {
+            return queryEmbeddingTtlMs;
+        }
+
+        public void setQueryEmbeddingTtlMs(long queryEmbeddingTtlMs) {
+            this.queryEmbeddingTtlMs = queryEmbeddingTtlMs;
+        }
+
+        public long getQueryEmbeddingMaxSize() {
+            return queryEmbeddingMaxSize;
+        }
+
+        public void setQueryEmbeddingMaxSize(long queryEmbeddingMaxSize) {
+            this.queryEmbeddingMaxSize = queryEmbeddingMaxSize;
+        }
+
+        public long getResultTtlMs() {
+            return resultTtlMs;
+        }
+
+        public void setResultTtlMs(long resultTtlMs) {
+            this.resultTtlMs = resultTtlMs;
+        }
+
+        public long getResultMaxSize() {
+            return resultMaxSize;
+        }
+
+        public void setResultMaxSize(long resultMaxSize) {
+            this.resultMaxSize = resultMaxSize;
+        }
+    }
+
+    /**
+     * 게시글마다 미리 계산해 post_related에 저장하는 관련 게시글(임베딩 kNN) 목록.
+     */
+    public static class Related {
+        private boolean enabled = true;
+        // 게시글당 저장하는 이웃 수. 조회 시 limit의 상한입니다.
+        private int size = 10;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+    }
+
+    /**
+     * 제목/slug 접두사 자동완성. 인덱스는 JVM 메모리에 두고 게시글 변경 이벤트로 갱신합니다.
+     */
+    public static class Suggest {
+        private boolean enabled = true;
+        private int maxLimit = 10;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+    }
+}
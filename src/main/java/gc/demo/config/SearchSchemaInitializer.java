@@ -0,0 +1,184 @@
+package gc.demo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * JPA ddl-auto로는 표현할 수 없는 검색용 스키마 객체(pgvector ANN 인덱스, 전문 검색 컬럼, 트라이그램 인덱스)를 애플리케이션 기동 후 보장합니다.
+ * 모든 DDL은 멱등적이며, 실패하더라도 기동을 막지 않고 경고만 남깁니다.
+ */
+@Component
+public class SearchSchemaInitializer {
+    private static final Logger log = LoggerFactory.getLogger(SearchSchemaInitializer.class);
+    private static final int EMBEDDING_DIMENSION = 384;
+    private static final String SEARCH_VECTOR_INDEX = "idx_post_search_vector";
+    private static final String TITLE_TRGM_INDEX = "idx_post_title_trgm";
+    private static final String CONTENT_TRGM_INDEX = "idx_post_content_trgm";
+    // 엔티티의 @Index에서 빠졌지만 ddl-auto=update가 지우지 않는 인덱스들입니다.
+    private static final List<String> LEGACY_INDEXES = List.of("idx_post_created_at");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SearchProperties searchProperties;
+
+    public SearchSchemaInitializer(JdbcTemplate jdbcTemplate, SearchProperties searchProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.searchProperties = searchProperties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        ensureVectorIndex();
+        ensureFullTextIndex();
+        ensureTrigramIndexes();
+        dropLegacyIndexes();
+    }
+
+    private void ensureVectorIndex() {
+        SearchProperties.VectorIndex config = searchProperties.getVectorIndex();
+        String wanted = config.getType() == SearchProperties.IndexType.NONE
+                ? null
+                : vectorIndexName(config.getType(), config.getQuantization());
+        try {
+            // 종류/양자화 조합마다 이름이 다르므로 원하는 인덱스 외에는 모두 정리합니다.
+            for (SearchProperties.IndexType type : List.of(SearchProperties.IndexType.HNSW, SearchProperties.IndexType.IVFFLAT)) {
+                for (SearchProperties.Quantization quantization : SearchProperties.Quantization.values()) {
+                    String name = vectorIndexName(type, quantization);
+                    if (!name.equals(wanted)) {
+                        dropIndex(name);
+                    }
+                }
+            }
+            if (wanted == null) {
+                return;
+            }
+            String parameters = config.getType() == SearchProperties.IndexType.HNSW
+                    ? "with (m = %d, ef_construction = %d)".formatted(config.getM(), config.getEfConstruction())
+                    : "with (lists = %d)".formatted(config.getLists());
+            createIndex(wanted, """
+                    create index concurrently if not exists %s on post
+                    using %s (%s)
+                    %s
+                    """.formatted(wanted, config.getType().name().toLowerCase(Locale.ROOT),
+                    indexedExpression(config.getQuantization()), parameters));
+        } catch (DataAccessException e) {
+            log.warn("Failed to ensure vector index (type={}, quantization={}); vector search will use sequential scans",
+                    config.getType(), config.getQuantization(), e);
+        }
+    }
+
+    private static String vectorIndexName(SearchProperties.IndexType type, SearchProperties.Quantization quantization) {
+        String name = "idx_post_embedding_" + type.name().toLowerCase(Locale.ROOT);
+        return quantization == SearchProperties.Quantization.NONE
+                ? name
+                : name + "_" + quantization.name().toLowerCase(Locale.ROOT);
+    }
+
+    // PostRepositoryCustomImpl의 ORDER BY 표현식과 같아야 인덱스가 쓰입니다.
+    private static String indexedExpression(SearchProperties.Quantization quantization) {
+        return switch (quantization) {
+            case NONE -> "embedding vector_cosine_ops";
+            case HALFVEC -> "(embedding::halfvec(%d)) halfvec_cosine_ops".formatted(EMBEDDING_DIMENSION);
+            case BINARY -> "(binary_quantize(embedding)::bit(%d)) bit_hamming_ops".formatted(EMBEDDING_DIMENSION);
+        };
+    }
+
+    /**
+     * 제목(A)과 본문(B)에 가중치를 준 tsvector를 생성 컬럼으로 유지하고 GIN 인덱스를 만듭니다.
+     * 컬럼 주석에 생성에 쓴 설정 목록을 남겨, 설정이 바뀌면 컬럼을 다시 만듭니다.
+     */
+    private void ensureFullTextIndex() {
+        List<String> configs = searchProperties.getFullText().getConfigs();
+        String signature = String.join(",", configs);
+        try {
+            List<String> current = jdbcTemplate.queryForList("""
+                    select coalesce(col_description(a.attrelid, a.attnum), '')
+                    from pg_attribute a
+                    where a.attrelid = 'post'::regclass and a.attname = 'search_vector' and not a.attisdropped
+                    """, String.class);
+            if (current.isEmpty() || !signature.equals(current.get(0))) {
+                if (!current.isEmpty()) {
+                    log.info("Text search configs changed ({} -> {}); regenerating post.search_vector",
+                            current.get(0), signature);
+                    jdbcTemplate.execute("alter table post drop column search_vector");
+                }
+                log.info("Creating post.search_vector with text search configs {}", signature);
+                jdbcTemplate.execute("alter table post add column search_vector tsvector generated always as (%s) stored"
+                        .formatted(searchVectorExpression(configs)));
+                jdbcTemplate.execute("comment on column post.search_vector is '%s'".formatted(signature));
+            }
+            createIndex(SEARCH_VECTOR_INDEX, """
+                    create index concurrently if not exists %s on post using gin (search_vector)
+                    """.formatted(SEARCH_VECTOR_INDEX));
+        } catch (DataAccessException e) {
+            log.warn("Failed to ensure full-text search column/index (configs={})", signature, e);
+        }
+    }
+
+    private void ensureTrigramIndexes() {
+        try {
+            jdbcTemplate.execute("create extension if not exists pg_trgm");
+            createIndex(TITLE_TRGM_INDEX, """
+                    create index concurrently if not exists %s on post using gin (title gin_trgm_ops)
+                    """.formatted(TITLE_TRGM_INDEX));
+            createIndex(CONTENT_TRGM_INDEX, """
+                    create index concurrently if not exists %s on post using gin (content gin_trgm_ops)
+                    """.formatted(CONTENT_TRGM_INDEX));
+        } catch (DataAccessException e) {
+            log.warn("Failed to ensure pg_trgm extension/indexes; fuzzy search is unavailable", e);
+        }
+    }
+
+    /**
+     * 피드 인덱스(idx_post_feed, idx_post_kind_feed)로 대체된 created_at 단일 인덱스를 지웁니다.
+     * 남겨 두면 쓰이지 않는데도 쓰기마다 함께 갱신됩니다.
+     */
+    private void dropLegacyIndexes() {
+        for (String name : LEGACY_INDEXES) {
+            try {
+                dropIndex(name);
+            } catch (DataAccessException e) {
+                log.warn("Failed to drop legacy index {}", name, e);
+            }
+        }
+    }
+
+    private static String searchVectorExpression(List<String> configs) {
+        return configs.stream()
+                .map(config -> """
+                        setweight(to_tsvector('%1$s'::regconfig, coalesce(title, '')), 'A') || \
+                        setweight(to_tsvector('%1$s'::regconfig, coalesce(content, '')), 'B')""".formatted(config))
+                .collect(Collectors.joining(" || "));
+    }
+
+    private void createIndex(String name, String ddl) {
+        // 이전 concurrently 빌드가 중단되면 INVALID 인덱스가 남아 "if not exists"에 가려지므로 먼저 정리합니다.
+        List<Boolean> valid = jdbcTemplate.queryForList("""
+                select i.indisvalid
+                from pg_class c
+                join pg_index i on i.indexrelid = c.oid
+                where c.relname = ?
+                """, Boolean.class, name);
+        if (!valid.isEmpty() && Boolean.TRUE.equals(valid.get(0))) {
+            return;
+        }
+        if (!valid.isEmpty()) {
+            log.warn("Dropping invalid index {} before rebuilding", name);
+            dropIndex(name);
+        }
+        log.info("Creating search index {}", name);
+        jdbcTemplate.execute(ddl);
+    }
+
+    private void dropIndex(String name) {
+        jdbcTemplate.execute("drop index concurrently if exists " + name);
+    }
+}
@@ -6,7 +6,9 @@ import gc.demo.dto.request.PostCreateRequest;
 import gc.demo.dto.request.PostUpdateRequest;
 import gc.demo.dto.response.PostFeedResponse;
 import gc.demo.dto.response.PostResponse;
+import gc.demo.dto.response.RelatedPostResponse;
 import gc.demo.service.PostService;
+import gc.demo.service.RelatedPostService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -23,6 +25,7 @@ import org.springframework.web.server.ResponseStatusException;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Tag(name = "Posts", description = "게시글 관리 API")
@@ -30,9 +33,11 @@ import java.util.UUID;
 @RequestMapping("/api/v1")
 public class PostController {
     private final PostService postService;
+    private final RelatedPostService relatedPostService;
 
-    public PostController(PostService postService) {
+    public PostController(PostService postService, RelatedPostService relatedPostService) {
         this.postService = postService;
+        this.relatedPostService = relatedPostService;
     }
 
     @Operation(summary = "게시글 피드 조회", description = "커서 기반 페이지네이션으로 게시글 피드를 조회합니다")
@@ -91,6 +96,20 @@ public class PostController {
         return ApiResponse.ok(postService.getBySlug(decoded));
     }
 
+    @Operation(summary = "관련 게시글 조회", description = "임베딩 유사도로 미리 계산해 둔 관련 게시글을 유사도 순으로 조회합니다")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "조회 성공"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "게시글을 찾을 수 없음")
+    })
+    @GetMapping("/posts/{slug}/related")
+    public ApiResponse<List<RelatedPostResponse>> related(
+            @Parameter(description = "게시글 slug", required = true) @PathVariable String slug,
+            @Parameter(description = "조회할 게시글 수 (최대 search.related.size)", example = "5")
+            @RequestParam(defaultValue = "5") int limit) {
+        String decoded = URLDecoder.decode(slug, StandardCharsets.UTF_8);
+        return ApiResponse.ok(relatedPostService.related(decoded, limit));
+    }
+
     @Operation(summary = "관리자 게시글 생성", description = "관리자 권한으로 게시글을 생성합니다",
                security = @SecurityRequirement(name = "bearerAuth"))
     @ApiResponses({
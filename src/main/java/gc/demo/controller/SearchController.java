@@ -3,27 +3,43 @@ package gc.demo.controller;
 import gc.demo.common.ApiResponse;
 import gc.demo.dto.request.SearchRequest;
 import gc.demo.dto.response.SearchResponse;
+import gc.demo.dto.response.SuggestionResponse;
+import gc.demo.search.SearchCursor;
+import gc.demo.search.SearchMode;
+import gc.demo.search.SearchQuery;
 import gc.demo.service.SearchService;
+import gc.demo.service.SuggestService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
 
 @Tag(name = "Search", description = "검색 API")
 @RestController
 @RequestMapping("/api/v1/search")
 public class SearchController {
+    private static final Logger log = LoggerFactory.getLogger(SearchController.class);
+
     private final SearchService searchService;
+    private final SuggestService suggestService;
 
-    public SearchController(SearchService searchService) {
+    public SearchController(SearchService searchService, SuggestService suggestService) {
         this.searchService = searchService;
+        this.suggestService = suggestService;
     }
 
     @Operation(summary = "게시글 검색 (GET)", description = "키워드로 게시글을 검색합니다")
@@ -33,14 +49,64 @@ public class SearchController {
     @GetMapping
     public ApiResponse<SearchResponse> search(
             @Parameter(description = "검색 키워드", required = true, example = "spring") @RequestParam String q,
-            @Parameter(description = "검색 결과 제한", example = "10") @RequestParam(defaultValue = "10") int limit) {
-        return ApiResponse.ok(searchService.search(q, limit));
+            @Parameter(description = "검색 결과 제한", example = "10") @RequestParam(defaultValue = "10") int limit,
+            @Parameter(description = "벡터 검색 탐색 폭 (HNSW ef_search / IVFFlat probes)", example = "100")
+            @RequestParam(required = false) Integer recall,
+            @Parameter(description = "검색 방식 (auto, vector, lexical, fuzzy, hybrid)", example = "auto")
+            @RequestParam(required = false) String mode,
+            @Parameter(description = "이전 응답의 nextCursor (다음 페이지 조회)")
+            @RequestParam(required = false) String cursor) {
+        return ApiResponse.ok(searchService.search(new SearchQuery(
+                q, limit, null, recall, SearchMode.from(mode), SearchCursor.decode(cursor))));
+    }
+
+    @Operation(summary = "게시글 검색 (스트리밍)",
+            description = "전문 검색과 벡터 검색 결과를 끝나는 대로 Server-Sent Events로 보냅니다. "
+                    + "이벤트 이름은 결과의 source(lexical, embeddings)이고, 마지막에 단계별 소요 시간을 담은 done 이벤트를 보냅니다")
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @Parameter(description = "검색 키워드", required = true, example = "spring") @RequestParam String q,
+            @Parameter(description = "검색 방식별 결과 제한", example = "10") @RequestParam(defaultValue = "10") int limit,
+            @Parameter(description = "벡터 검색 탐색 폭 (HNSW ef_search / IVFFlat probes)", example = "100")
+            @RequestParam(required = false) Integer recall) {
+        SseEmitter emitter = new SseEmitter();
+        searchService.stream(new SearchQuery(q, limit, null, recall, SearchMode.AUTO, null),
+                        partial -> send(emitter, partial.source(), partial))
+                .whenComplete((timings, error) -> {
+                    if (error != null) {
+                        emitter.completeWithError(error);
+                        return;
+                    }
+                    send(emitter, "done", timings);
+                    emitter.complete();
+                });
+        return emitter;
+    }
+
+    // 클라이언트가 먼저 연결을 끊으면 전송이 실패하며, 남은 단계의 결과는 버립니다.
+    private static void send(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Search stream closed before sending {}: {}", name, e.getMessage());
+        }
+    }
+
+    @Operation(summary = "검색어 자동완성",
+            description = "제목 또는 slug가 입력값으로 시작하는(제목은 중간 단어 포함) 게시글을 메모리 인덱스에서 찾습니다")
+    @GetMapping("/suggest")
+    public ApiResponse<List<SuggestionResponse>> suggest(
+            @Parameter(description = "입력 중인 검색어", required = true, example = "spr") @RequestParam String q,
+            @Parameter(description = "최대 결과 수", example = "8") @RequestParam(defaultValue = "8") int limit) {
+        return ApiResponse.ok(suggestService.suggest(q, limit));
     }
 
     @Operation(summary = "게시글 검색 (POST)", description = "검색 키워드(및 optional limit)를 POST 본문으로 받아 검색합니다")
     @PostMapping
     public ApiResponse<SearchResponse> search(@Valid @RequestBody SearchRequest request) {
-        int limit = request.limit() == null ? 10 : request.limit();
-        return ApiResponse.ok(searchService.search(request.q(), limit, request.embedding()));
+        int limit = request.limit() == null ? SearchQuery.DEFAULT_LIMIT : request.limit();
+        return ApiResponse.ok(searchService.search(new SearchQuery(
+                request.q(), limit, request.embedding(), request.recall(), SearchMode.from(request.mode()),
+                SearchCursor.decode(request.cursor()))));
     }
 }
@@ -3,33 +3,56 @@ package gc.demo.converter;
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * Stores a {@code float[]} embedding in a PostgreSQL {@code vector} column by using the text
  * representation (e.g. {@code [0.1,0.2,...]}). The entity keeps {@code float[]} while Hibernate
  * binds the JDBC value as text and the SQL casts to/from {@code vector}.
+ * <p>
+ * Both directions work on the raw characters without intermediate strings or boxed values: the
+ * parser counts commas to size the result and scans each token in place, and the writer emits
+ * at most nine significant digits per value (enough to round-trip every float) into a single char buffer.
  */
 @Converter(autoApply = false)
 public class PgvectorStringFloatArrayConverter implements AttributeConverter<float[], String> {
 
+    // "-1.23456789e-45" 15자 + 구분자
+    private static final int MAX_CHARS_PER_VALUE = 16;
+    private static final int MAX_FAST_DIGITS = 18;
+    private static final int MAX_FAST_EXPONENT = 22;
+    private static final double[] POW10 = new double[MAX_FAST_EXPONENT + 1];
+    // 10^k, k = -39 .. SCALE_OFFSET + 46 (float 지수 범위 ±1을 1~9자리 정수로 옮기는 배율)
+    private static final int SCALE_OFFSET = 8;
+    private static final int MIN_SCALE = -39;
+    private static final double[] SCALE = new double[SCALE_OFFSET + 46 - MIN_SCALE + 1];
+
+    static {
+        for (int i = 0; i < POW10.length; i++) {
+            POW10[i] = Double.parseDouble("1e" + i);
+        }
+        for (int i = 0; i < SCALE.length; i++) {
+            SCALE[i] = Double.parseDouble("1e" + (MIN_SCALE + i));
+        }
+    }
+
     @Override
     public String convertToDatabaseColumn(float[] attribute) {
         if (attribute == null) {
             return null;
         }
 
-        StringBuilder sb = new StringBuilder(attribute.length * 8 + 2);
-        sb.append('[');
+        char[] buffer = new char[2 + attribute.length * MAX_CHARS_PER_VALUE];
+        int pos = 0;
+        buffer[pos++] = '[';
         for (int i = 0; i < attribute.length; i++) {
             if (i > 0) {
-                sb.append(',');
+                buffer[pos++] = ',';
             }
-            sb.append(Float.toString(attribute[i]));
+            pos = writeFloat(attribute[i], buffer, pos);
         }
-        sb.append(']');
-        return sb.toString();
+        buffer[pos++] = ']';
+        return new String(buffer, 0, pos);
     }
 
     @Override
@@ -38,39 +61,260 @@ public class PgvectorStringFloatArrayConverter implements AttributeConverter<flo
             return null;
         }
 
-        String s = dbData.trim();
-        if (s.isEmpty()) {
-            return new float[0];
-        }
-
         int start = 0;
-        int end = s.length();
-        if (s.charAt(0) == '[') {
+        int end = dbData.length();
+        while (start < end && dbData.charAt(start) <= ' ') {
             start++;
         }
-        if (end > start && s.charAt(end - 1) == ']') {
+        while (end > start && dbData.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start < end && dbData.charAt(start) == '[') {
+            start++;
+        }
+        if (end > start && dbData.charAt(end - 1) == ']') {
             end--;
         }
 
-        String inner = s.substring(start, end).trim();
-        if (inner.isEmpty()) {
+        int commas = 0;
+        boolean blank = true;
+        for (int i = start; i < end; i++) {
+            char c = dbData.charAt(i);
+            if (c == ',') {
+                commas++;
+            } else if (c > ' ') {
+                blank = false;
+            }
+        }
+        if (blank) {
             return new float[0];
         }
 
-        String[] parts = inner.split(",");
-        List<Float> floats = new ArrayList<>(parts.length);
-        for (String part : parts) {
-            String token = part.trim();
-            if (!token.isEmpty()) {
-                floats.add(Float.parseFloat(token));
+        float[] result = new float[commas + 1];
+        int count = 0;
+        int tokenStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i < end && dbData.charAt(i) != ',') {
+                continue;
+            }
+            int from = tokenStart;
+            int to = i;
+            while (from < to && dbData.charAt(from) <= ' ') {
+                from++;
+            }
+            while (to > from && dbData.charAt(to - 1) <= ' ') {
+                to--;
+            }
+            if (from < to) {
+                result[count++] = parseFloat(dbData, from, to);
+            }
+            tokenStart = i + 1;
+        }
+        // 빈 토큰("1,,2")은 건너뛰므로 쉼표 수보다 값이 적을 수 있습니다.
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    /**
+     * 10진 가수가 double에 정확히 담기고 10의 거듭제곱도 정확한 범위면 한 번의 곱셈/나눗셈으로 올바르게 반올림된
+     * double을 얻을 수 있습니다. 그 double이 두 float의 정확한 중간값이 아니면 float로 줄여도 결과가
+     * {@link Float#parseFloat}와 같습니다. 그 밖의 입력(NaN, 긴 가수, 큰 지수, 서브노멀)은 Float.parseFloat로 처리합니다.
+     */
+    static float parseFloat(String s, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        char c = s.charAt(i);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        boolean anyDigit = false;
+        boolean fraction = false;
+        for (; i < to; i++) {
+            c = s.charAt(i);
+            if (c == '.' && !fraction) {
+                fraction = true;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                break;
+            }
+            if (significantDigits >= MAX_FAST_DIGITS) {
+                return slowParse(s, from, to);
+            }
+            anyDigit = true;
+            mantissa = mantissa * 10 + (c - '0');
+            if (mantissa != 0) {
+                significantDigits++;
+            }
+            if (fraction) {
+                exponent--;
+            }
+        }
+
+        if (i < to && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < to && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+                negativeExponent = s.charAt(i) == '-';
+                i++;
+            }
+            int exponentStart = i;
+            int explicitExponent = 0;
+            for (; i < to && (c = s.charAt(i)) >= '0' && c <= '9'; i++) {
+                if (explicitExponent < 10_000) {
+                    explicitExponent = explicitExponent * 10 + (c - '0');
+                }
+            }
+            if (i == exponentStart) {
+                return slowParse(s, from, to);
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        if (!anyDigit || i != to) {
+            return slowParse(s, from, to);
+        }
+        if (mantissa == 0) {
+            return negative ? -0f : 0f;
+        }
+        if (exponent < -MAX_FAST_EXPONENT || exponent > MAX_FAST_EXPONENT || mantissa > (1L << 53)) {
+            return slowParse(s, from, to);
+        }
+
+        double value = exponent >= 0 ? mantissa * POW10[exponent] : mantissa / POW10[-exponent];
+        if (value < Float.MIN_NORMAL || isFloatMidpoint(value)) {
+            return slowParse(s, from, to);
+        }
+        float result = (float) value;
+        return negative ? -result : result;
+    }
+
+    // double 가수 52비트 중 float에서 잘려 나가는 하위 29비트가 정확히 절반이면 float 반올림이 한 번 더 일어납니다.
+    private static boolean isFloatMidpoint(double value) {
+        return (Double.doubleToRawLongBits(value) & 0x1FFFFFFFL) == 0x10000000L;
+    }
+
+    private static float slowParse(String s, int from, int to) {
+        return Float.parseFloat(s.substring(from, to));
+    }
+
+    /**
+     * 원래 float으로 되돌아오는 가장 짧은 유효숫자로 씁니다. 9자리면 모든 float이 되돌아오므로 8자리부터 한 자리씩
+     * 줄여 가며 되돌아오지 않는 자리에서 멈춥니다. 지수가 -4..8 범위면 소수 표기, 그 밖은 {@code 1.2345e-7} 형태입니다.
+     */
+    static int writeFloat(float value, char[] buffer, int pos) {
+        if (Float.isNaN(value) || Float.isInfinite(value)) {
+            String special = Float.toString(value);
+            special.getChars(0, special.length(), buffer, pos);
+            return pos + special.length();
+        }
+        if (Float.floatToRawIntBits(value) < 0) {
+            buffer[pos++] = '-';
+            value = -value;
+        }
+        if (value == 0f) {
+            buffer[pos++] = '0';
+            return pos;
+        }
+
+        double magnitude = value;
+        int exponent = (int) Math.floor(Math.log10(magnitude));
+        long digits = Math.round(magnitude * SCALE[SCALE_OFFSET - exponent - MIN_SCALE]);
+        if (digits >= 1_000_000_000L) {
+            exponent++;
+            digits = Math.round(magnitude * SCALE[SCALE_OFFSET - exponent - MIN_SCALE]);
+        } else if (digits < 100_000_000L) {
+            exponent--;
+            digits = Math.round(magnitude * SCALE[SCALE_OFFSET - exponent - MIN_SCALE]);
+        }
+        int length = 9;
+        int nineDigitExponent = exponent;
+        for (int precision = 8; precision > 0; precision--) {
+            int scale = nineDigitExponent - precision + 1;
+            long shorter = Math.round(magnitude * SCALE[-scale - MIN_SCALE]);
+            int shorterExponent = nineDigitExponent;
+            if (shorter >= (long) POW10[precision]) {
+                // 9.99..가 10으로 올림되면 한 자리 올라간 10의 거듭제곱이 후보입니다.
+                shorter /= 10;
+                scale++;
+                shorterExponent++;
+            }
+            if (!roundTrips(shorter, scale, value)) {
+                break;
+            }
+            digits = shorter;
+            length = precision;
+            exponent = shorterExponent;
+        }
+        while (digits % 10 == 0) {
+            digits /= 10;
+            length--;
+        }
+
+        if (exponent >= 0 && exponent < 9) {
+            int integerLength = exponent + 1;
+            if (length <= integerLength) {
+                writeDigits(digits, length, buffer, pos);
+                pos += length;
+                for (int i = length; i < integerLength; i++) {
+                    buffer[pos++] = '0';
+                }
+                return pos;
             }
+            writeDigits(digits, length, buffer, pos);
+            System.arraycopy(buffer, pos + integerLength, buffer, pos + integerLength + 1, length - integerLength);
+            buffer[pos + integerLength] = '.';
+            return pos + length + 1;
+        }
+        if (exponent < 0 && exponent >= -4) {
+            buffer[pos++] = '0';
+            buffer[pos++] = '.';
+            for (int i = -1; i > exponent; i--) {
+                buffer[pos++] = '0';
+            }
+            writeDigits(digits, length, buffer, pos);
+            return pos + length;
         }
 
-        float[] result = new float[floats.size()];
-        for (int i = 0; i < floats.size(); i++) {
-            result[i] = floats.get(i);
+        writeDigits(digits, length, buffer, pos + 1);
+        buffer[pos] = buffer[pos + 1];
+        if (length > 1) {
+            buffer[pos + 1] = '.';
+            pos += length + 1;
+        } else {
+            pos += 1;
+        }
+        buffer[pos++] = 'e';
+        if (exponent < 0) {
+            buffer[pos++] = '-';
+            exponent = -exponent;
+        }
+        if (exponent >= 10) {
+            buffer[pos++] = (char) ('0' + exponent / 10);
         }
-        return result;
+        buffer[pos++] = (char) ('0' + exponent % 10);
+        return pos;
+    }
+
+    private static boolean roundTrips(long digits, int scale, float value) {
+        if (scale >= -MAX_FAST_EXPONENT && scale <= MAX_FAST_EXPONENT) {
+            double decoded = scale >= 0 ? digits * POW10[scale] : digits / POW10[-scale];
+            if (decoded >= Float.MIN_NORMAL && !isFloatMidpoint(decoded)) {
+                return (float) decoded == value;
+            }
+        }
+        // 큰 지수, 서브노멀, float 중간값은 한 번의 연산으로 판정할 수 없어 문자열로 확인합니다.
+        return Float.parseFloat(digits + "e" + scale) == value;
     }
-}
 
+    private static void writeDigits(long digits, int length, char[] buffer, int pos) {
+        for (int i = pos + length - 1; i >= pos; i--) {
+            buffer[i] = (char) ('0' + digits % 10);
+            digits /= 10;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package gc.demo.converter;
+
+import com.pgvector.PGvector;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.usertype.UserType;
+
+import java.io.Serializable;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+
+/**
+ * {@code float[]}를 pgvector {@code vector} 컬럼에 문자열 변환 없이 매핑합니다.
+ * 쓰기는 {@link PGvector}로 바인딩해 바이너리로 전송하고, 읽기는 드라이버가 돌려준 {@link PGvector}에서 바로 배열을 꺼냅니다.
+ */
+public class PgvectorType implements UserType<float[]> {
+
+    @Override
+    public int getSqlType() {
+        return Types.OTHER;
+    }
+
+    @Override
+    public Class<float[]> returnedClass() {
+        return float[].class;
+    }
+
+    @Override
+    public boolean equals(float[] x, float[] y) {
+        return Arrays.equals(x, y);
+    }
+
+    @Override
+    public int hashCode(float[] x) {
+        return Arrays.hashCode(x);
+    }
+
+    @Override
+    public float[] nullSafeGet(ResultSet rs, int position, SharedSessionContractImplementor session, Object owner)
+            throws SQLException {
+        PgvectorTypes.register(rs.getStatement().getConnection());
+        return PgvectorTypes.toFloatArray(rs.getObject(position));
+    }
+
+    @Override
+    public void nullSafeSet(PreparedStatement st, float[] value, int index, SharedSessionContractImplementor session)
+            throws SQLException {
+        PgvectorTypes.register(st.getConnection());
+        if (value == null) {
+            st.setNull(index, Types.OTHER);
+            return;
+        }
+        st.setObject(index, new PGvector(value));
+    }
+
+    @Override
+    public float[] deepCopy(float[] value) {
+        return value == null ? null : value.clone();
+    }
+
+    @Override
+    public boolean isMutable() {
+        return true;
+    }
+
+    @Override
+    public Serializable disassemble(float[] value) {
+        return deepCopy(value);
+    }
+
+    @Override
+    public float[] assemble(Serializable cached, Object owner) {
+        return deepCopy((float[]) cached);
+    }
+}
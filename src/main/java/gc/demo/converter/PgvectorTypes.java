@@ -0,0 +1,58 @@
+package gc.demo.converter;
+
+import com.pgvector.PGvector;
+import org.postgresql.PGConnection;
+import org.postgresql.core.BaseConnection;
+import org.postgresql.util.PGobject;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * pgvector {@code vector} 타입을 JDBC 커넥션에 등록해 float32 배열을 바이너리 포맷(2바이트 차원 + 2바이트 예약 + 4바이트 float)으로
+ * 주고받게 합니다. 등록은 물리 커넥션마다 한 번만 수행됩니다.
+ * <p>
+ * PostgreSQL 드라이버는 서버 측 prepared statement에서만 바이너리 수신을 사용하므로, Hibernate 쿼리는 같은 SQL이
+ * prepareThreshold(기본 5)회 실행된 이후부터 바이너리로 전환됩니다. 그 전에 도착한 텍스트 값도 그대로 해석합니다.
+ */
+public final class PgvectorTypes {
+    private static final String VECTOR = "vector";
+    private static final Map<BaseConnection, Boolean> REGISTERED = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final PgvectorStringFloatArrayConverter TEXT = new PgvectorStringFloatArrayConverter();
+
+    private PgvectorTypes() {
+    }
+
+    public static void register(Connection connection) throws SQLException {
+        BaseConnection base = connection.unwrap(BaseConnection.class);
+        if (REGISTERED.containsKey(base)) {
+            return;
+        }
+        connection.unwrap(PGConnection.class).addDataType(VECTOR, PGvector.class);
+        int oid = base.getTypeInfo().getPGType(VECTOR);
+        if (oid != 0) {
+            base.getQueryExecutor().addBinaryReceiveOid(oid);
+            base.getQueryExecutor().addBinarySendOid(oid);
+        }
+        REGISTERED.put(base, Boolean.TRUE);
+    }
+
+    public static float[] toFloatArray(Object value) throws SQLException {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof PGvector vector) {
+            return vector.toArray();
+        }
+        if (value instanceof PGobject object) {
+            return TEXT.convertToEntityAttribute(object.getValue());
+        }
+        if (value instanceof String text) {
+            return TEXT.convertToEntityAttribute(text);
+        }
+        throw new SQLException("Unsupported vector value: " + value.getClass().getName());
+    }
+}
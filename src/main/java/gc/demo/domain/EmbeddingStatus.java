@@ -0,0 +1,7 @@
+package gc.demo.domain;
+
+public enum EmbeddingStatus {
+    READY,
+    PENDING,
+    FAILED
+}
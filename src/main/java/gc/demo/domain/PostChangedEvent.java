@@ -0,0 +1,27 @@
+package gc.demo.domain;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 게시글이 저장되거나 삭제되었음을 알리는 애플리케이션 이벤트.
+ * 인메모리 인덱스·캐시는 {@code @TransactionalEventListener}로 커밋 이후에만 반영합니다.
+ */
+public record PostChangedEvent(List<Long> postIds, Type type) {
+    public enum Type {
+        SAVED,
+        DELETED
+    }
+
+    public static PostChangedEvent saved(Long postId) {
+        return new PostChangedEvent(List.of(postId), Type.SAVED);
+    }
+
+    public static PostChangedEvent saved(Collection<Long> postIds) {
+        return new PostChangedEvent(List.copyOf(postIds), Type.SAVED);
+    }
+
+    public static PostChangedEvent deleted(Long postId) {
+        return new PostChangedEvent(List.of(postId), Type.DELETED);
+    }
+}
@@ -0,0 +1,26 @@
+package gc.demo.domain;
+
+/**
+ * 게시글 종류. 작성자가 없으면 관리자 게시글(ADMIN), 있으면 커뮤니티 게시글(COMMUNITY)이며 post.author_id에서 계산됩니다.
+ */
+public enum PostKind {
+    ADMIN,
+    COMMUNITY;
+
+    /**
+     * 피드/목록 API의 type 파라미터(admin, community)를 변환합니다.
+     *
+     * @return null이면 null(전체)
+     * @throws IllegalArgumentException 알 수 없는 type
+     */
+    public static PostKind fromType(String type) {
+        if (type == null) {
+            return null;
+        }
+        return switch (type) {
+            case "admin" -> ADMIN;
+            case "community" -> COMMUNITY;
+            default -> throw new IllegalArgumentException("지원하지 않는 게시글 타입입니다: " + type);
+        };
+    }
+}
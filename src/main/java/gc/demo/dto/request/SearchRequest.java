@@ -4,4 +4,5 @@ import jakarta.validation.constraints.NotBlank;
 
 import java.util.List;
 
-public record SearchRequest(@NotBlank String q, Integer limit, List<Double> embedding) {}
+public record SearchRequest(@NotBlank String q, Integer limit, List<Double> embedding, Integer recall, String mode,
+                            String cursor) {}
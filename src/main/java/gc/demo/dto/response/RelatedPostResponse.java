@@ -0,0 +1,9 @@
+package gc.demo.dto.response;
+
+import java.time.OffsetDateTime;
+
+/**
+ * @param similarity 목록을 계산한 시점의 코사인 유사도
+ */
+public record RelatedPostResponse(String slug, String title, String description, OffsetDateTime date,
+                                  Double similarity) {}
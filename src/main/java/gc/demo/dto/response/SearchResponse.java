@@ -1,8 +1,30 @@
 package gc.demo.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.time.OffsetDateTime;
 import java.util.List;
 
-public record SearchResponse(List<Result> results, boolean fallback, String source) {
+/**
+ * @param timings    source가 hybrid일 때만 채워지는 단계별 소요 시간
+ * @param nextCursor 다음 페이지가 있을 수 있을 때(embeddings, lexical 결과가 limit개 꽉 찼을 때)의 커서
+ */
+public record SearchResponse(List<Result> results, boolean fallback, String source,
+                             @JsonInclude(JsonInclude.Include.NON_NULL) List<Timing> timings,
+                             @JsonInclude(JsonInclude.Include.NON_NULL) String nextCursor) {
+
+    public SearchResponse(List<Result> results, boolean fallback, String source) {
+        this(results, fallback, source, null, null);
+    }
+
+    public SearchResponse(List<Result> results, boolean fallback, String source, List<Timing> timings) {
+        this(results, fallback, source, timings, null);
+    }
+
     public record Result(String slug, String title, String description, OffsetDateTime date, Double similarity) {}
+
+    /**
+     * @param status ok, timeout, failed 중 하나
+     */
+    public record Timing(String leg, long tookMs, String status, int hits) {}
 }
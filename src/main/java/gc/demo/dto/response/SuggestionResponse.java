@@ -0,0 +1,3 @@
+package gc.demo.dto.response;
+
+public record SuggestionResponse(String slug, String title) {}
@@ -0,0 +1,38 @@
+package gc.demo.entity;
+
+import gc.demo.converter.PgvectorType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Type;
+
+import java.time.OffsetDateTime;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "embedding_cache")
+public class EmbeddingCacheEntry {
+    // "{EmbeddingProvider.name()}:{sha256(text)}", 예: "openai:text-embedding-3-small:…"
+    @Id
+    @Column(name = "cache_key", length = 320)
+    private String cacheKey;
+
+    @Column(nullable = false)
+    private String model;
+
+    // 모델마다 차원이 달라 차원 없는 vector 타입으로 저장합니다.
+    @Type(PgvectorType.class)
+    @Column(name = "embedding", columnDefinition = "vector", nullable = false)
+    private float[] embedding;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private OffsetDateTime createdAt;
+}
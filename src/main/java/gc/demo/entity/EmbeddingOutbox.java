@@ -0,0 +1,46 @@
+package gc.demo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.OffsetDateTime;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "embedding_outbox", indexes = {
+        @Index(name = "idx_embedding_outbox_post", columnList = "post_id", unique = true),
+        @Index(name = "idx_embedding_outbox_next_attempt", columnList = "next_attempt_at")
+})
+public class EmbeddingOutbox {
+    @Id
+    private Long id;
+
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+
+    // 게시글이 다시 수정될 때마다 증가. 처리 중에 값이 바뀌었으면 결과를 버리고 최신 요청을 다시 처리합니다.
+    @Column(name = "requests", nullable = false)
+    private int requests;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private OffsetDateTime nextAttemptAt;
+
+    @Column(name = "last_error", columnDefinition = "text")
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private OffsetDateTime createdAt;
+}
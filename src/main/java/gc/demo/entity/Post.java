@@ -5,8 +5,11 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.ColumnTransformer;
-import gc.demo.converter.PgvectorStringFloatArrayConverter;
+import org.hibernate.annotations.LazyGroup;
+import org.hibernate.annotations.Type;
+import gc.demo.converter.PgvectorType;
+import gc.demo.domain.EmbeddingStatus;
+import gc.demo.domain.PostKind;
 
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
@@ -18,7 +21,8 @@ import java.util.List;
 @NoArgsConstructor
 @Table(name = "post", indexes = {
         @Index(name = "idx_post_slug", columnList = "slug", unique = true),
-        @Index(name = "idx_post_created_at", columnList = "created_at"),
+        @Index(name = "idx_post_feed", columnList = "created_at desc, id desc"),
+        @Index(name = "idx_post_kind_feed", columnList = "kind, created_at desc, id desc"),
         @Index(name = "idx_post_author_id", columnList = "author_id")
 })
 public class Post {
@@ -31,6 +35,10 @@ public class Post {
     @Column(nullable = false)
     private String title;
 
+    // 본문과 임베딩은 바이트코드 향상(build.gradle의 hibernate.enhancement)으로 처음 접근할 때 따로 읽습니다.
+    // 그룹을 나눠 두어 본문만 필요한 경로에서 임베딩까지 읽지 않습니다.
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("content")
     @Column(name = "content", columnDefinition = "text", nullable = false)
     private String content;
 
@@ -38,11 +46,26 @@ public class Post {
     @JoinColumn(name = "author_id")
     private User author;
 
-    @Convert(converter = PgvectorStringFloatArrayConverter.class)
-    @ColumnTransformer(read = "embedding::text", write = "?::vector")
+    // author_id에서 DB가 계산하는 생성 컬럼. 피드 타입 필터가 (kind, created_at, id) 인덱스 범위 탐색이 되도록 저장합니다.
+    // 애플리케이션은 쓰지 않으며, 같은 영속성 컨텍스트에서 author를 바꾼 직후에는 이전 값이 남아 있습니다.
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind", length = 16, insertable = false, updatable = false, columnDefinition = """
+            varchar(16) generated always as (case when author_id is null then 'ADMIN' else 'COMMUNITY' end) stored""")
+    private PostKind kind;
+
+    // HNSW/IVFFlat 인덱스는 @Index로 표현할 수 없어 SearchSchemaInitializer가 관리합니다.
+    // 전문 검색용 search_vector 생성 컬럼도 매핑하지 않고 SearchSchemaInitializer가 관리합니다.
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("embedding")
+    @Type(PgvectorType.class)
     @Column(name = "embedding", columnDefinition = "vector(384)")
     private float[] embedding;
 
+    // null은 상태 컬럼 도입 전에 저장된 게시글
+    @Enumerated(EnumType.STRING)
+    @Column(name = "embedding_status", length = 16)
+    private EmbeddingStatus embeddingStatus;
+
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Comment> comments = new ArrayList<>();
 
@@ -0,0 +1,56 @@
+package gc.demo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+
+/**
+ * 게시글별로 미리 계산한 관련 게시글. (post_id, rank) 기본 키 하나로 목록 전체를 순서대로 읽습니다.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@IdClass(PostRelated.Key.class)
+@Table(name = "post_related", indexes = {
+        @Index(name = "idx_post_related_related_post", columnList = "related_post_id")
+})
+public class PostRelated {
+    @Id
+    @Column(name = "post_id")
+    private Long postId;
+
+    // 1부터 시작하는 유사도 순위
+    @Id
+    @Column(name = "rank")
+    private int rank;
+
+    @Column(name = "related_post_id", nullable = false)
+    private Long relatedPostId;
+
+    @Column(name = "similarity", nullable = false)
+    private double similarity;
+
+    @Column(name = "computed_at", nullable = false)
+    private OffsetDateTime computedAt;
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long postId;
+        private int rank;
+    }
+}
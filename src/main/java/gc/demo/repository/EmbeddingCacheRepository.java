@@ -0,0 +1,7 @@
+package gc.demo.repository;
+
+import gc.demo.entity.EmbeddingCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface EmbeddingCacheRepository extends JpaRepository<EmbeddingCacheEntry, String> {
+}
@@ -0,0 +1,33 @@
+package gc.demo.repository;
+
+import gc.demo.entity.EmbeddingOutbox;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface EmbeddingOutboxRepository extends JpaRepository<EmbeddingOutbox, Long> {
+    // 재요청·취소와 워커의 완료·실패 기록은 모두 행 잠금을 잡고 읽어, requests 확인과 갱신·삭제 사이에 끼어들지 못하게 합니다.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from EmbeddingOutbox o where o.postId = :postId")
+    Optional<EmbeddingOutbox> findByPostIdForUpdate(@Param("postId") Long postId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from EmbeddingOutbox o where o.id = :id")
+    Optional<EmbeddingOutbox> findByIdForUpdate(@Param("id") Long id);
+
+    // 여러 인스턴스가 동시에 폴링해도 같은 행을 잡지 않도록 skip locked로 가져옵니다.
+    @Query(value = """
+            select * from embedding_outbox
+            where next_attempt_at <= :now
+            order by next_attempt_at
+            limit :limit
+            for update skip locked
+            """, nativeQuery = true)
+    List<EmbeddingOutbox> findDueForUpdate(@Param("now") OffsetDateTime now, @Param("limit") int limit);
+}
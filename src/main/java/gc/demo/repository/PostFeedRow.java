@@ -0,0 +1,8 @@
+package gc.demo.repository;
+
+import java.time.OffsetDateTime;
+
+/**
+ * 피드 한 줄. 본문과 임베딩 컬럼을 읽지 않도록 생성자 표현식으로 필요한 컬럼만 조회합니다.
+ */
+public record PostFeedRow(Long id, String slug, String title, Long authorId, OffsetDateTime createdAt) {}
@@ -0,0 +1,13 @@
+package gc.demo.repository;
+
+import gc.demo.domain.Role;
+
+import java.time.OffsetDateTime;
+
+/**
+ * 게시글 목록 한 줄. 임베딩은 읽지 않고 작성자 필드는 같은 쿼리의 조인으로 가져옵니다.
+ *
+ * @param authorRole 관리자 게시글(작성자 없음)이면 null
+ */
+public record PostListRow(Long id, String slug, String title, String content, Long authorId, String authorName,
+                          Role authorRole, OffsetDateTime createdAt, int version) {}
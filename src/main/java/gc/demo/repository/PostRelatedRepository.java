@@ -0,0 +1,29 @@
+package gc.demo.repository;
+
+import gc.demo.entity.PostRelated;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface PostRelatedRepository extends JpaRepository<PostRelated, PostRelated.Key>, PostRelatedRepositoryCustom {
+
+    @Modifying
+    @Query(value = "delete from post_related where post_id = :postId", nativeQuery = true)
+    int deleteByPostId(@Param("postId") Long postId);
+
+    @Query(value = "select related_post_id from post_related where post_id = :postId", nativeQuery = true)
+    List<Long> findRelatedPostIds(@Param("postId") Long postId);
+
+    @Query(value = "select post_id from post_related where related_post_id = :postId", nativeQuery = true)
+    List<Long> findPostIdsReferencing(@Param("postId") Long postId);
+
+    @Query(value = """
+            select p.id from post p
+            where p.embedding is not null
+              and not exists (select 1 from post_related r where r.post_id = p.id)
+            """, nativeQuery = true)
+    List<Long> findPostIdsWithoutRelated();
+}
@@ -0,0 +1,11 @@
+package gc.demo.repository;
+
+public interface PostRelatedRepositoryCustom {
+    /**
+     * 게시글 임베딩의 최근접 이웃 k개를 순위와 함께 저장합니다. 게시글에 임베딩이 없으면 아무것도 넣지 않습니다.
+     * search.vector-index.quantization이 켜져 있으면 검색과 같은 양자화 인덱스로 후보를 뽑고 float32 거리로 다시 정렬합니다.
+     *
+     * @return 저장한 행 수
+     */
+    int insertNearestNeighbours(Long postId, int k);
+}
@@ -0,0 +1,62 @@
+package gc.demo.repository;
+
+import gc.demo.config.SearchProperties;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public class PostRelatedRepositoryCustomImpl implements PostRelatedRepositoryCustom {
+    // 비교 대상을 서브쿼리로 두면 한 번만 평가되는 상수로 취급되어 ANN 인덱스가 쓰입니다.
+    private static final String PROBE = "(select embedding from post where id = :postId)";
+
+    private final EntityManager entityManager;
+    private final SearchProperties searchProperties;
+
+    public PostRelatedRepositoryCustomImpl(EntityManager entityManager, SearchProperties searchProperties) {
+        this.entityManager = entityManager;
+        this.searchProperties = searchProperties;
+    }
+
+    @Override
+    @Transactional
+    public int insertNearestNeighbours(Long postId, int k) {
+        SearchProperties.VectorIndex config = searchProperties.getVectorIndex();
+        boolean quantized = config.getQuantization() != SearchProperties.Quantization.NONE;
+        int candidates = quantized ? k * Math.max(1, config.getRerankFactor()) : k;
+        // 인덱스 순서는 ORDER BY가 인덱스 표현식과 같아야 쓰입니다. 양자화 인덱스면 그 순서로 후보를 넓게 뽑습니다.
+        String order = quantized
+                ? PostRepositoryCustomImpl.quantizedDistance(config.getQuantization(), PROBE)
+                : "embedding <=> " + PROBE;
+        if (config.getType() == SearchProperties.IndexType.HNSW) {
+            // ef_search가 후보 수보다 작으면 후보가 덜 나옵니다.
+            entityManager.createNativeQuery("select set_config('hnsw.ef_search', :value, true)")
+                    .setParameter("value", Integer.toString(Math.max(candidates, config.getEfSearch())))
+                    .getSingleResult();
+        }
+
+        String sql = """
+                insert into post_related (post_id, rank, related_post_id, similarity, computed_at)
+                select :postId, row_number() over (order by n.distance, n.id), n.id, 1 - n.distance, now()
+                from (
+                    select c.id, c.embedding <=> %1$s as distance
+                    from (
+                        select id, embedding
+                        from post
+                        where embedding is not null
+                          and id <> :postId
+                          and %1$s is not null
+                        order by %2$s
+                        limit :candidates
+                    ) c
+                    order by distance, c.id
+                    limit :k
+                ) n
+                """.formatted(PROBE, order);
+        return entityManager.createNativeQuery(sql)
+                .setParameter("postId", postId)
+                .setParameter("candidates", candidates)
+                .setParameter("k", k)
+                .executeUpdate();
+    }
+}
@@ -1,55 +1,93 @@
 package gc.demo.repository;
 
+import gc.demo.domain.EmbeddingStatus;
+import gc.demo.domain.PostKind;
 import gc.demo.entity.Post;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface PostRepository extends JpaRepository<Post, Long>, PostRepositoryCustom {
     Optional<Post> findBySlug(String slug);
 
+    boolean existsBySlug(String slug);
+
+    // 피드와 목록은 Post 엔티티 대신 필요한 컬럼만 읽습니다. 엔티티로 읽으면 본문(text)과 임베딩을 행마다 가져와 변환합니다.
+    // 타입 필터를 OR 조건 하나로 합치면 인덱스 범위 탐색이 안 되므로 전체/종류별 쿼리를 나눠 각각
+    // idx_post_feed(created_at desc, id desc), idx_post_kind_feed(kind, created_at desc, id desc)를 타게 합니다.
+    // 커서 조건도 행 비교로 써야 인덱스 시작 위치가 되어 깊은 페이지에서도 앞쪽 행을 건너뛰며 읽지 않습니다.
+    @Query("""
+            select new gc.demo.repository.PostFeedRow(p.id, p.slug, p.title, p.author.id, p.createdAt)
+            from Post p
+            order by p.createdAt desc, p.id desc
+            """)
+    List<PostFeedRow> findFeedFirst(Pageable pageable);
+
+    @Query("""
+            select new gc.demo.repository.PostFeedRow(p.id, p.slug, p.title, p.author.id, p.createdAt)
+            from Post p
+            where p.kind = :kind
+            order by p.createdAt desc, p.id desc
+            """)
+    List<PostFeedRow> findFeedFirstByKind(@Param("kind") PostKind kind, Pageable pageable);
+
     @Query("""
-            select p from Post p
-            where (:type is null)
-               or (:type = 'admin' and p.author is null)
-               or (:type = 'community' and p.author is not null)
+            select new gc.demo.repository.PostFeedRow(p.id, p.slug, p.title, p.author.id, p.createdAt)
+            from Post p
+            where (p.createdAt, p.id) < (:cursorCreatedAt, :cursorId)
             order by p.createdAt desc, p.id desc
             """)
-    List<Post> findFeedFirst(@Param("type") String type, Pageable pageable);
+    List<PostFeedRow> findFeedAfter(@Param("cursorCreatedAt") OffsetDateTime cursorCreatedAt,
+                                    @Param("cursorId") Long cursorId,
+                                    Pageable pageable);
 
     @Query("""
-            select p from Post p
-            where (p.createdAt < :cursorCreatedAt
-               or (p.createdAt = :cursorCreatedAt and p.id < :cursorId))
-            and ((:type is null)
-               or (:type = 'admin' and p.author is null)
-               or (:type = 'community' and p.author is not null))
+            select new gc.demo.repository.PostFeedRow(p.id, p.slug, p.title, p.author.id, p.createdAt)
+            from Post p
+            where p.kind = :kind
+              and (p.createdAt, p.id) < (:cursorCreatedAt, :cursorId)
             order by p.createdAt desc, p.id desc
             """)
-    List<Post> findFeedAfter(@Param("type") String type,
-                             @Param("cursorCreatedAt") OffsetDateTime cursorCreatedAt,
-                             @Param("cursorId") Long cursorId,
-                             Pageable pageable);
+    List<PostFeedRow> findFeedAfterByKind(@Param("kind") PostKind kind,
+                                          @Param("cursorCreatedAt") OffsetDateTime cursorCreatedAt,
+                                          @Param("cursorId") Long cursorId,
+                                          Pageable pageable);
 
+    // 목록 페이지는 행만 읽고, 전체 개수는 PostCounter가 설정된 방식으로 따로 구합니다.
     @Query("""
-            select p from Post p
-            where (:type is null)
-               or (:type = 'admin' and p.author is null)
-               or (:type = 'community' and p.author is not null)
+            select new gc.demo.repository.PostListRow(
+                p.id, p.slug, p.title, p.content, a.id, a.name, a.role, p.createdAt, p.version)
+            from Post p left join p.author a
             """)
-    Page<Post> findByType(@Param("type") String type, Pageable pageable);
+    List<PostListRow> findListRows(Pageable pageable);
 
     @Query("""
-            select p from Post p
-            where lower(p.title) like lower(concat('%', :q, '%'))
-               or lower(p.content) like lower(concat('%', :q, '%'))
-            order by p.createdAt desc
+            select new gc.demo.repository.PostListRow(
+                p.id, p.slug, p.title, p.content, a.id, a.name, a.role, p.createdAt, p.version)
+            from Post p left join p.author a
+            where p.kind = :kind
             """)
-    List<Post> searchLexical(@Param("q") String q, Pageable pageable);
+    List<PostListRow> findListRowsByKind(@Param("kind") PostKind kind, Pageable pageable);
+
+    long countByKind(PostKind kind);
+
+    @Query("select new gc.demo.repository.PostTitle(p.id, p.slug, p.title) from Post p")
+    List<PostTitle> findAllTitles();
+
+    @Query("select new gc.demo.repository.PostTitle(p.id, p.slug, p.title) from Post p where p.id in :ids")
+    List<PostTitle> findTitlesByIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "update post set embedding_status = :status where id = :id", nativeQuery = true)
+    int updateEmbeddingStatus(@Param("id") Long id, @Param("status") String status);
+
+    @Query("select p.id from Post p where p.embeddingStatus = :status")
+    List<Long> findIdsByEmbeddingStatus(@Param("status") EmbeddingStatus status);
 }
@@ -1,10 +1,73 @@
 package gc.demo.repository;
 
-import gc.demo.entity.Post;
+import gc.demo.domain.PostKind;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface PostRepositoryCustom {
-    List<Post> searchByEmbedding(float[] embedding, Pageable pageable);
+    /**
+     * @param recall ANN 인덱스의 탐색 폭(HNSW는 ef_search, IVFFlat은 probes). null이면 설정 기본값을 사용합니다.
+     */
+    List<PostSearchHit> searchByEmbedding(float[] embedding, Pageable pageable, Integer recall);
+
+    /**
+     * 이전 페이지의 마지막 결과(afterSimilarity, afterId) 다음부터 이어서 찾습니다. 결과는 (similarity 내림차순, id 오름차순)이며
+     * 두 값이 null이면 첫 페이지입니다. pgvector 0.8 이상이면 iterative index scan으로 limit개를 채울 때까지 인덱스를 더 읽습니다.
+     */
+    List<PostSearchHit> searchByEmbedding(float[] embedding, Pageable pageable, Integer recall,
+                                          Double afterSimilarity, Long afterId);
+
+    /**
+     * search.vector-index.quantization으로 만든 양자화 인덱스(halfvec 또는 binary)로 후보를 뽑습니다.
+     * 후보는 양자화된 거리 순이며 similarity는 null입니다. 양자화가 꺼져 있으면 빈 목록을 반환합니다.
+     *
+     * @param maxSimilarity 다음 페이지 요청이면 이전 페이지 마지막 결과의 유사도. 그보다 확실히 큰 후보는 제외하며,
+     *                      경계의 정확한 비교는 재정렬하는 쪽에서 합니다. null이면 제한 없음
+     */
+    List<QuantizedCandidate> findQuantizedCandidates(float[] embedding, int candidates, Integer recall,
+                                                     Double maxSimilarity);
+
+    /**
+     * post.search_vector에 대한 전문 검색. 설정된 텍스트 검색 설정마다 websearch 문법으로 질의를 만들어 OR로 합치고
+     * ts_rank_cd 점수(제목 가중치 > 본문) 내림차순으로 정렬합니다. similarity는 null입니다.
+     */
+    List<PostSearchHit> searchLexical(String q, Pageable pageable);
+
+    /**
+     * afterId 게시글의 (점수, 작성일, id) 다음부터 이어서 찾습니다. 기준 게시글이 삭제됐으면 빈 목록을 반환합니다.
+     */
+    List<PostSearchHit> searchLexical(String q, Pageable pageable, Long afterId);
+
+    /**
+     * pg_trgm 단어 유사도로 제목/본문에서 오타를 허용해 찾습니다. similarity에는 제목과 본문 중 높은 단어 유사도를 담습니다.
+     */
+    List<PostSearchHit> searchFuzzy(String q, Pageable pageable);
+
+    /**
+     * 외부 인덱스가 찾은 id의 검색 결과 필드만 읽습니다. 순서는 보장하지 않으며 similarity는 null입니다.
+     */
+    List<PostSearchHit> findSearchHitsByIds(Collection<Long> ids);
+
+    /**
+     * post_related에 미리 계산된 관련 게시글을 순위대로 읽습니다. similarity는 계산 시점의 코사인 유사도입니다.
+     */
+    List<PostSearchHit> findRelatedHits(String slug, int limit);
+
+    /**
+     * 임베딩을 pgvector 바이너리 포맷으로 바인딩해 기록하고 상태를 READY로 바꿉니다.
+     * 버전 컬럼을 건드리지 않아 임베딩 워커가 사용자의 동시 수정과 낙관적 락 충돌을 일으키지 않습니다.
+     *
+     * @return 갱신된 행 수
+     */
+    int updateEmbedding(Long id, float[] embedding);
+
+    /**
+     * 플래너가 추정한 행 수. count(*) 없이 통계(pg_class.reltuples와 컬럼 통계)만 쓰므로 ANALYZE 시점에 따라 오차가 있습니다.
+     *
+     * @param kind null이면 전체 게시글
+     * @return 테이블 통계가 아직 없으면 -1
+     */
+    long estimateCount(PostKind kind);
 }
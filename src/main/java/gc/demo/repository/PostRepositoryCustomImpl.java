@@ -1,43 +1,463 @@
 package gc.demo.repository;
 
+import com.pgvector.PGvector;
+import gc.demo.config.SearchProperties;
 import gc.demo.converter.PgvectorStringFloatArrayConverter;
-import gc.demo.entity.Post;
+import gc.demo.converter.PgvectorTypes;
+import gc.demo.domain.PostKind;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.postgresql.PGStatement;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Repository
 public class PostRepositoryCustomImpl implements PostRepositoryCustom {
     private static final int EMBEDDING_DIMENSION = 384;
+    // pgvector가 허용하는 hnsw.ef_search 상한
+    private static final int MAX_EF_SEARCH = 1000;
+    private static final int SNIPPET_LENGTH = 160;
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\":\\s*(\\d+)");
+    // 양자화 후보는 JVM에서 다시 계산한 유사도로 경계를 비교하므로, DB 값과의 부동소수점 오차만큼 여유를 둡니다.
+    private static final double SIMILARITY_SLACK = 1e-6;
+    // substr은 TOAST된 본문에서 앞부분만 잘라 읽을 수 있어 left()보다 본문 전체를 덜 풀어냅니다.
+    private static final String HIT_COLUMNS = """
+            id, slug, title, substr(content, 1, %d) as snippet, created_at
+            """.formatted(SNIPPET_LENGTH).strip();
 
     private final EntityManager entityManager;
+    private final SearchProperties searchProperties;
     private final PgvectorStringFloatArrayConverter converter = new PgvectorStringFloatArrayConverter();
+    private volatile Boolean iterativeScanSupported;
 
-    public PostRepositoryCustomImpl(EntityManager entityManager) {
+    public PostRepositoryCustomImpl(EntityManager entityManager, SearchProperties searchProperties) {
         this.entityManager = entityManager;
+        this.searchProperties = searchProperties;
     }
 
     @Override
-    public List<Post> searchByEmbedding(float[] embedding, Pageable pageable) {
+    @Transactional(readOnly = true)
+    public List<PostSearchHit> searchByEmbedding(float[] embedding, Pageable pageable, Integer recall) {
+        return searchByEmbedding(embedding, pageable, recall, null, null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PostSearchHit> searchByEmbedding(float[] embedding, Pageable pageable, Integer recall,
+                                                 Double afterSimilarity, Long afterId) {
         if (embedding == null || embedding.length == 0 || pageable == null) {
             return Collections.emptyList();
         }
 
+        boolean continuation = afterSimilarity != null && afterId != null;
+        applyQueryBudget();
+        applyRecall(recall, pageable.getPageSize());
+        if (continuation) {
+            applyIterativeScan();
+        }
+
+        // ORDER BY는 인덱스가 쓰이도록 `embedding <=> 상수` 형태를 그대로 두고, 바깥에서 id로 동점을 정렬합니다.
+        // 커서 조건의 유사도는 SELECT와 같은 식이라 이전 페이지가 받은 값과 비트 단위로 같습니다.
+        // 안쪽 쿼리는 동점 중 아무 행이나 돌려줄 수 있으므로 한 행을 더 읽어 페이지 경계에 동점이 걸쳤는지 확인합니다.
+        String keyset = continuation ? """
+                  and id <> :afterId
+                  and (1 - (embedding <=> CAST(:embedding AS vector(%1$d))) < :afterSimilarity
+                       or (1 - (embedding <=> CAST(:embedding AS vector(%1$d))) = :afterSimilarity and id > :afterId))
+                """.formatted(EMBEDDING_DIMENSION) : "";
         String sql = """
-                select *
+                select * from (
+                    select %1$s, 1 - (embedding <=> CAST(:embedding AS vector(%2$d))) as similarity
+                    from post
+                    where embedding is not null
+                    %3$s
+                    order by embedding <=> CAST(:embedding AS vector(%2$d))
+                    limit :limit
+                ) hits
+                order by similarity desc, id
+                """.formatted(HIT_COLUMNS, EMBEDDING_DIMENSION, keyset);
+
+        int size = pageable.getPageSize();
+        Query query = hitQuery(sql, true);
+        query.setParameter("embedding", converter.convertToDatabaseColumn(embedding));
+        query.setParameter("limit", size + 1);
+        if (continuation) {
+            query.setParameter("afterSimilarity", afterSimilarity);
+            query.setParameter("afterId", afterId);
+        }
+        List<PostSearchHit> hits = toHits(query.getResultList());
+        if (hits.size() <= size) {
+            return hits;
+        }
+        double boundary = hits.get(size - 1).similarity();
+        if (hits.get(size).similarity() != boundary) {
+            return hits.subList(0, size);
+        }
+
+        // 경계 유사도의 행 중 id가 작은 것부터 채워야 다음 페이지의 (similarity, id) 커서가 건너뛰는 행이 없습니다.
+        // 경계 값과 같은 행만 찾는 쿼리라 인덱스를 타지 못하지만, 임베딩이 같은 게시글이 경계에 걸칠 때만 실행됩니다.
+        List<PostSearchHit> page = new ArrayList<>(hits.stream().filter(hit -> hit.similarity() > boundary).toList());
+        Query tied = hitQuery("""
+                select %1$s, 1 - (embedding <=> CAST(:embedding AS vector(%2$d))) as similarity
                 from post
                 where embedding is not null
-                order by embedding <=> CAST(:embedding AS vector(%d))
+                  and 1 - (embedding <=> CAST(:embedding AS vector(%2$d))) = :boundary
+                %3$s
+                order by id
                 limit :limit
-                """.formatted(EMBEDDING_DIMENSION);
+                """.formatted(HIT_COLUMNS, EMBEDDING_DIMENSION, keyset), true);
+        tied.setParameter("embedding", converter.convertToDatabaseColumn(embedding));
+        tied.setParameter("boundary", boundary);
+        tied.setParameter("limit", size - page.size());
+        if (continuation) {
+            tied.setParameter("afterSimilarity", afterSimilarity);
+            tied.setParameter("afterId", afterId);
+        }
+        page.addAll(toHits(tied.getResultList()));
+        return page;
+    }
 
-        Query query = entityManager.createNativeQuery(sql, Post.class);
-        query.setParameter("embedding", converter.convertToDatabaseColumn(embedding));
+    @Override
+    @Transactional(readOnly = true)
+    public List<QuantizedCandidate> findQuantizedCandidates(float[] embedding, int candidates, Integer recall,
+                                                            Double maxSimilarity) {
+        SearchProperties.Quantization quantization = searchProperties.getVectorIndex().getQuantization();
+        if (embedding == null || embedding.length == 0 || candidates <= 0
+                || quantization == SearchProperties.Quantization.NONE) {
+            return Collections.emptyList();
+        }
+
+        applyQueryBudget();
+        applyRecall(recall, candidates);
+        if (maxSimilarity != null) {
+            applyIterativeScan();
+        }
+
+        String sql = """
+                select %s, embedding
+                from post
+                where embedding is not null
+                %s
+                order by %s
+                limit ?
+                """.formatted(HIT_COLUMNS,
+                maxSimilarity == null ? "" : "and 1 - (embedding <=> CAST(? AS vector(%d))) <= ?".formatted(EMBEDDING_DIMENSION),
+                quantizedDistance(quantization, "CAST(? AS vector(%d))".formatted(EMBEDDING_DIMENSION)));
+        String probe = converter.convertToDatabaseColumn(embedding);
+
+        // 후보의 float32 임베딩은 바이너리로 받아야 재정렬 비용이 작으므로 JDBC로 직접 읽습니다.
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            PgvectorTypes.register(connection);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.unwrap(PGStatement.class).setPrepareThreshold(-1);
+                int index = 1;
+                if (maxSimilarity != null) {
+                    statement.setString(index++, probe);
+                    statement.setDouble(index++, maxSimilarity + SIMILARITY_SLACK);
+                }
+                statement.setString(index++, probe);
+                statement.setInt(index, candidates);
+                try (ResultSet rs = statement.executeQuery()) {
+                    List<QuantizedCandidate> result = new ArrayList<>(candidates);
+                    while (rs.next()) {
+                        String snippet = rs.getString("snippet");
+                        PostSearchHit hit = new PostSearchHit(
+                                rs.getLong("id"),
+                                rs.getString("slug"),
+                                rs.getString("title"),
+                                snippet == null ? "" : snippet,
+                                rs.getObject("created_at", OffsetDateTime.class),
+                                null);
+                        result.add(new QuantizedCandidate(hit, PgvectorTypes.toFloatArray(rs.getObject("embedding"))));
+                    }
+                    return result;
+                }
+            }
+        });
+    }
+
+    /**
+     * 양자화 인덱스 순서의 거리 식. SearchSchemaInitializer의 인덱스 표현식과 같아야 인덱스가 쓰입니다.
+     *
+     * @param probe vector(384) 값을 내는 SQL 식(바인드 변수나 상수 서브쿼리)
+     */
+    static String quantizedDistance(SearchProperties.Quantization quantization, String probe) {
+        return switch (quantization) {
+            case HALFVEC -> "embedding::halfvec(%1$d) <=> (%2$s)::halfvec(%1$d)".formatted(EMBEDDING_DIMENSION, probe);
+            case BINARY -> "binary_quantize(embedding)::bit(%1$d) <~> binary_quantize(%2$s)::bit(%1$d)"
+                    .formatted(EMBEDDING_DIMENSION, probe);
+            case NONE -> throw new IllegalStateException("quantization is disabled");
+        };
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PostSearchHit> searchLexical(String q, Pageable pageable) {
+        return searchLexical(q, pageable, null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PostSearchHit> searchLexical(String q, Pageable pageable, Long afterId) {
+        if (q == null || q.isBlank() || pageable == null) {
+            return Collections.emptyList();
+        }
+
+        applyQueryBudget();
+        String tsQuery = searchProperties.getFullText().getConfigs().stream()
+                .map(config -> "websearch_to_tsquery('%s'::regconfig, :q)".formatted(config))
+                .collect(Collectors.joining(" || "));
+        // 점수는 커서에 담지 않고 기준 게시글에서 다시 계산합니다. 같은 식이므로 이전 페이지의 정렬 값과 같습니다.
+        String keyset = afterId == null ? "" : """
+                  and (ts_rank_cd(search_vector, q.query), created_at, id)
+                      < (select ts_rank_cd(a.search_vector, q.query), a.created_at, a.id from post a where a.id = :afterId)
+                """;
+        String sql = """
+                select %s
+                from post, (select %s as query) q
+                where search_vector @@ q.query
+                %s
+                order by ts_rank_cd(search_vector, q.query) desc, created_at desc, id desc
+                limit :limit
+                """.formatted(HIT_COLUMNS, tsQuery, keyset);
+
+        Query query = hitQuery(sql, false);
+        query.setParameter("q", q);
         query.setParameter("limit", pageable.getPageSize());
-        return query.getResultList();
+        if (afterId != null) {
+            query.setParameter("afterId", afterId);
+        }
+        return toHits(query.getResultList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PostSearchHit> searchFuzzy(String q, Pageable pageable) {
+        if (q == null || q.isBlank() || pageable == null) {
+            return Collections.emptyList();
+        }
+
+        // <% 연산자는 하나의 임계값만 쓰므로 GIN 인덱스로는 낮은 쪽 기준으로 후보를 찾고, 컬럼별 임계값은 다시 거릅니다.
+        SearchProperties.Fuzzy config = searchProperties.getFuzzy();
+        double indexThreshold = Math.min(config.getTitleThreshold(), config.getContentThreshold());
+        applyQueryBudget();
+        setLocal("pg_trgm.word_similarity_threshold", Double.toString(indexThreshold));
+
+        String sql = """
+                select %s, greatest(s.title_score, s.content_score) as similarity
+                from post
+                cross join lateral (
+                    select word_similarity(:q, title) as title_score, word_similarity(:q, content) as content_score
+                ) s
+                where (:q <%% title or :q <%% content)
+                  and (s.title_score >= :titleThreshold or s.content_score >= :contentThreshold)
+                order by similarity desc, created_at desc
+                limit :limit
+                """.formatted(HIT_COLUMNS);
+
+        Query query = hitQuery(sql, true);
+        query.setParameter("q", q);
+        query.setParameter("titleThreshold", config.getTitleThreshold());
+        query.setParameter("contentThreshold", config.getContentThreshold());
+        query.setParameter("limit", pageable.getPageSize());
+        return toHits(query.getResultList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PostSearchHit> findSearchHitsByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        applyQueryBudget();
+        Query query = hitQuery("select %s from post where id in (:ids)".formatted(HIT_COLUMNS), false);
+        query.setParameter("ids", ids);
+        return toHits(query.getResultList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PostSearchHit> findRelatedHits(String slug, int limit) {
+        if (slug == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        // (post_id, rank) 기본 키 범위 하나와 post 기본 키 조회만으로 끝납니다.
+        String sql = """
+                select %s, r.similarity
+                from post_related r
+                join post on post.id = r.related_post_id
+                where r.post_id = (select id from post where slug = :slug)
+                order by r.rank
+                limit :limit
+                """.formatted(HIT_COLUMNS);
+        Query query = hitQuery(sql, true);
+        query.setParameter("slug", slug);
+        query.setParameter("limit", limit);
+        return toHits(query.getResultList());
+    }
+
+    @Override
+    @Transactional
+    public int updateEmbedding(Long id, float[] embedding) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            PgvectorTypes.register(connection);
+            try (PreparedStatement statement = connection.prepareStatement("""
+                    update post
+                    set embedding = ?, embedding_status = 'READY'
+                    where id = ?
+                    """)) {
+                statement.setObject(1, new PGvector(embedding));
+                statement.setLong(2, id);
+                return statement.executeUpdate();
+            }
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long estimateCount(PostKind kind) {
+        String sql = kind == null
+                ? "explain (format json) select 1 from post"
+                : "explain (format json) select 1 from post where kind = '%s'".formatted(kind.name());
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            // 한 번도 VACUUM/ANALYZE되지 않은 테이블은 reltuples가 -1이고, 플래너는 페이지 수로 지어낸 값을 내놓습니다.
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "select reltuples from pg_class where oid = 'post'::regclass");
+                 ResultSet rs = statement.executeQuery()) {
+                if (!rs.next() || rs.getDouble(1) < 0) {
+                    return -1L;
+                }
+            }
+            try (PreparedStatement statement = connection.prepareStatement(sql);
+                 ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                Matcher rows = PLAN_ROWS.matcher(rs.getString(1));
+                return rows.find() ? Long.parseLong(rows.group(1)) : -1L;
+            }
+        });
+    }
+
+    private Query hitQuery(String sql, boolean withSimilarity) {
+        Query query = entityManager.createNativeQuery(sql);
+        // pgjdbc는 timestamptz를 TIMESTAMP로 보고하므로 타입을 명시해야 OffsetDateTime으로 받습니다.
+        query.unwrap(NativeQuery.class)
+                .addScalar("id", Long.class)
+                .addScalar("slug", String.class)
+                .addScalar("title", String.class)
+                .addScalar("snippet", String.class)
+                .addScalar("created_at", OffsetDateTime.class);
+        if (withSimilarity) {
+            query.unwrap(NativeQuery.class).addScalar("similarity", Double.class);
+        }
+        return query;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<PostSearchHit> toHits(List<?> rows) {
+        return ((List<Object[]>) rows).stream()
+                .map(row -> new PostSearchHit(
+                        (Long) row[0],
+                        (String) row[1],
+                        (String) row[2],
+                        row[3] == null ? "" : (String) row[3],
+                        (OffsetDateTime) row[4],
+                        row.length > 5 ? (Double) row[5] : null))
+                .toList();
+    }
+
+    /**
+     * 현재 트랜잭션에 한정(set_config의 is_local=true)해 ANN 탐색 폭을 설정합니다.
+     * 커넥션 풀로 반환될 때 값이 남지 않으므로 요청마다 독립적으로 recall/지연시간을 조정할 수 있습니다.
+     */
+    private void applyRecall(Integer recall, int limit) {
+        SearchProperties.VectorIndex config = searchProperties.getVectorIndex();
+        String setting;
+        int value;
+        switch (config.getType()) {
+            case HNSW -> {
+                setting = "hnsw.ef_search";
+                int requested = recall != null ? recall : config.getEfSearch();
+                // ef_search가 limit보다 작으면 결과가 limit개보다 적게 반환됩니다.
+                value = Math.min(MAX_EF_SEARCH, Math.max(limit, requested));
+            }
+            case IVFFLAT -> {
+                setting = "ivfflat.probes";
+                int requested = recall != null ? recall : config.getProbes();
+                value = Math.max(1, Math.min(config.getLists(), requested));
+            }
+            default -> {
+                return;
+            }
+        }
+        setLocal(setting, Integer.toString(value));
+    }
+
+    /**
+     * {@link QueryBudget#within}으로 마감이 걸린 스레드면 남은 시간을 이 트랜잭션의 statement_timeout으로 겁니다.
+     * 시간을 넘긴 쿼리는 서버에서 취소되어 예외로 끝나고, 커넥션은 곧바로 풀로 돌아갑니다.
+     */
+    private void applyQueryBudget() {
+        QueryBudget.remainingMs().ifPresent(remaining -> setLocal("statement_timeout", Long.toString(remaining)));
+    }
+
+    /**
+     * 커서 조건은 인덱스가 돌려준 후보를 나중에 거르므로, 탐색 폭만큼 읽고 끝나면 뒤 페이지가 limit개보다 적어집니다.
+     * pgvector 0.8부터는 iterative index scan으로 조건을 만족하는 행이 limit개 찰 때까지 인덱스를 계속 읽습니다.
+     * IVFFlat은 strict_order를 지원하지 않아 relaxed_order를 쓰며, 순서는 바깥 쿼리에서 다시 맞춥니다.
+     */
+    private void applyIterativeScan() {
+        if (!supportsIterativeScan()) {
+            return;
+        }
+        switch (searchProperties.getVectorIndex().getType()) {
+            case HNSW -> setLocal("hnsw.iterative_scan", "strict_order");
+            case IVFFLAT -> setLocal("ivfflat.iterative_scan", "relaxed_order");
+            default -> {
+            }
+        }
+    }
+
+    private boolean supportsIterativeScan() {
+        Boolean supported = iterativeScanSupported;
+        if (supported == null) {
+            List<?> versions = entityManager
+                    .createNativeQuery("select extversion from pg_extension where extname = 'vector'")
+                    .getResultList();
+            supported = !versions.isEmpty() && isAtLeast((String) versions.get(0), 0, 8);
+            iterativeScanSupported = supported;
+        }
+        return supported;
+    }
+
+    private static boolean isAtLeast(String version, int major, int minor) {
+        String[] parts = version.split("\\.");
+        try {
+            int actualMajor = Integer.parseInt(parts[0]);
+            int actualMinor = parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
+            return actualMajor > major || (actualMajor == major && actualMinor >= minor);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    // set_config의 is_local=true: 현재 트랜잭션에만 적용되어 커넥션 풀로 값이 새지 않습니다.
+    private void setLocal(String name, String value) {
+        entityManager.createNativeQuery("select set_config(:name, :value, true)")
+                .setParameter("name", name)
+                .setParameter("value", value)
+                .getSingleResult();
     }
 }
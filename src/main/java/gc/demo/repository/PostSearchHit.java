@@ -0,0 +1,16 @@
+package gc.demo.repository;
+
+import java.time.OffsetDateTime;
+
+/**
+ * 검색 결과 한 건. 본문 전체와 임베딩을 읽지 않도록 SQL에서 잘라낸 snippet과 계산된 유사도만 담습니다.
+ *
+ * @param similarity 코사인 유사도(1 - 코사인 거리). 벡터 검색이 아니면 null
+ */
+public record PostSearchHit(Long id, String slug, String title, String snippet, OffsetDateTime createdAt,
+                            Double similarity) {
+
+    public PostSearchHit withSimilarity(Double similarity) {
+        return new PostSearchHit(id, slug, title, snippet, createdAt, similarity);
+    }
+}
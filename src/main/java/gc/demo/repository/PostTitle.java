@@ -0,0 +1,6 @@
+package gc.demo.repository;
+
+/**
+ * 자동완성 인덱스에 필요한 게시글 필드만 담은 프로젝션.
+ */
+public record PostTitle(Long id, String slug, String title) {}
@@ -0,0 +1,6 @@
+package gc.demo.repository;
+
+/**
+ * 양자화 인덱스에서 뽑은 1단계 후보. float32 원본 임베딩을 함께 담아 호출자가 정확한 거리로 다시 정렬합니다.
+ */
+public record QuantizedCandidate(PostSearchHit hit, float[] embedding) {}
@@ -0,0 +1,45 @@
+package gc.demo.repository;
+
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 현재 스레드에서 실행되는 검색 쿼리의 마감 시각. {@link #within}으로 감싼 작업 안에서는 검색 쿼리가 남은 시간을
+ * statement_timeout으로 걸어, 시간 예산을 넘긴 검색 단계의 쿼리가 DB에서도 취소되고 커넥션과 스레드를 바로 돌려줍니다.
+ * CompletableFuture의 cancel이나 orTimeout은 실행 중인 쿼리를 멈추지 못하므로 이 방법으로 끊습니다.
+ */
+public final class QueryBudget {
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private QueryBudget() {
+    }
+
+    /**
+     * @param deadlineNanos {@link System#nanoTime()} 기준 마감 시각
+     */
+    public static <T> T within(long deadlineNanos, Supplier<T> work) {
+        Long previous = DEADLINE.get();
+        DEADLINE.set(deadlineNanos);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                DEADLINE.remove();
+            } else {
+                DEADLINE.set(previous);
+            }
+        }
+    }
+
+    /**
+     * 마감까지 남은 시간(ms). 이미 지났으면 1을 돌려줘 쿼리가 곧바로 취소되게 하고, 마감이 없으면 비어 있습니다.
+     */
+    static OptionalLong remainingMs() {
+        Long deadline = DEADLINE.get();
+        if (deadline == null) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+    }
+}
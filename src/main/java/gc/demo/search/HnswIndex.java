@@ -0,0 +1,445 @@
+package gc.demo.search;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 코사인 거리 기반 HNSW(Hierarchical Navigable Small World) 그래프.
+ * 벡터는 정규화한 뒤 힙 밖(direct buffer)에 연속으로 저장하므로 GC 대상 객체 수가 게시글 수에 비례해 늘지 않습니다.
+ * 삭제·갱신은 tombstone으로 처리하고, tombstone이 절반을 넘으면 살아 있는 노드로 그래프를 다시 만듭니다.
+ * 검색은 읽기 락, 변경은 쓰기 락으로 보호되어 여러 스레드에서 안전하게 사용할 수 있습니다.
+ */
+public class HnswIndex {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MIN_COMPACTION_SIZE = 64;
+    private static final Comparator<Candidate> NEAREST_FIRST = Comparator.comparingDouble(Candidate::distance);
+    private static final Comparator<Hit> HIT_ORDER = Comparator.comparingDouble(Hit::distance).thenComparingLong(Hit::id);
+
+    private final int dimension;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random = new Random(42);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> nodeById = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private FloatBuffer vectors;
+    private long[] ids;
+    // links[node][level][0]은 이웃 수, 이후 원소가 이웃 노드 번호
+    private int[][][] links;
+    private int capacity;
+    private int size;
+    private int deletedCount;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    public HnswIndex(int dimension, int m, int efConstruction) {
+        if (dimension <= 0 || m < 2 || efConstruction < 1) {
+            throw new IllegalArgumentException("invalid HNSW parameters");
+        }
+        this.dimension = dimension;
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(m);
+        allocate(boundedCapacity(0, INITIAL_CAPACITY));
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodeById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void upsert(long id, float[] vector) {
+        if (vector == null || vector.length != dimension) {
+            throw new IllegalArgumentException("vector dimension must be " + dimension);
+        }
+        float[] normalized = normalize(vector);
+        lock.writeLock().lock();
+        try {
+            markDeleted(nodeById.remove(id));
+            if (normalized != null) {
+                insert(id, normalized);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Integer node = nodeById.remove(id);
+            markDeleted(node);
+            compactIfNeeded();
+            return node != null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param ef 탐색 후보 큐 크기. 클수록 recall이 높고 느려지며, k보다 작으면 k로 올립니다.
+     * @return 코사인 거리 오름차순의 최대 k개 결과
+     */
+    public List<Hit> search(float[] query, int k, int ef) {
+        if (query == null || query.length != dimension || k <= 0) {
+            return List.of();
+        }
+        float[] normalized = normalize(query);
+        if (normalized == null) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0 || nodeById.isEmpty()) {
+                return List.of();
+            }
+            int ep = entryPoint;
+            for (int level = maxLevel; level > 0; level--) {
+                ep = greedyClosest(normalized, ep, level);
+            }
+            List<Candidate> found = sorted(searchLayer(normalized, ep, Math.max(ef, k), 0, true));
+            List<Hit> hits = new ArrayList<>(Math.min(k, found.size()));
+            for (int i = 0; i < found.size() && hits.size() < k; i++) {
+                Candidate candidate = found.get(i);
+                hits.add(new Hit(ids[candidate.node()], candidate.distance()));
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * (거리, id) 순서에서 after 다음의 결과 k개. 그래프 탐색은 이전 위치에서 이어갈 수 없으므로 후보 수를 두 배씩 늘려 다시
+     * 찾습니다. 페이지 경계와 같은 거리의 결과가 후보 한도에서 잘리지 않도록, 가장 먼 후보가 경계보다 멀어질 때까지 넓힙니다.
+     *
+     * @param after 이전 페이지의 마지막 결과. null이면 첫 페이지
+     */
+    public List<Hit> searchAfter(float[] query, int k, int ef, Hit after) {
+        if (k <= 0) {
+            return List.of();
+        }
+        for (int candidates = k + 1; ; candidates = (int) Math.min(Integer.MAX_VALUE, candidates * 2L)) {
+            List<Hit> found = search(query, candidates, Math.max(ef, candidates));
+            List<Hit> page = found.stream()
+                    .filter(hit -> after == null || HIT_ORDER.compare(hit, after) > 0)
+                    .sorted(HIT_ORDER)
+                    .limit(k)
+                    .toList();
+            boolean exhausted = found.size() < candidates;
+            if (exhausted || (page.size() == k
+                    && found.get(found.size() - 1).distance() > page.get(k - 1).distance())) {
+                return page;
+            }
+        }
+    }
+
+    private void insert(long id, float[] vector) {
+        ensureCapacity(size + 1);
+        int node = size++;
+        vectors.put(node * dimension, vector);
+        ids[node] = id;
+        nodeById.put(id, node);
+
+        int level = randomLevel();
+        links[node] = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            links[node][l] = new int[maxConnections(l) + 1];
+        }
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return;
+        }
+
+        int ep = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            ep = greedyClosest(vector, ep, l);
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            List<Candidate> found = sorted(searchLayer(vector, ep, efConstruction, l, false));
+            for (int neighbour : selectNeighbours(found, m)) {
+                links[node][l][++links[node][l][0]] = neighbour;
+                connect(neighbour, node, l);
+            }
+            ep = found.get(0).node();
+        }
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = node;
+        }
+    }
+
+    private void connect(int from, int to, int level) {
+        int[] neighbours = links[from][level];
+        int max = maxConnections(level);
+        if (neighbours[0] < max) {
+            neighbours[++neighbours[0]] = to;
+            return;
+        }
+        List<Candidate> candidates = new ArrayList<>(max + 1);
+        for (int i = 1; i <= neighbours[0]; i++) {
+            candidates.add(new Candidate(neighbours[i], distanceBetween(from, neighbours[i])));
+        }
+        candidates.add(new Candidate(to, distanceBetween(from, to)));
+        candidates.sort(NEAREST_FIRST);
+        int[] kept = selectNeighbours(candidates, max);
+        neighbours[0] = kept.length;
+        System.arraycopy(kept, 0, neighbours, 1, kept.length);
+    }
+
+    /**
+     * HNSW 논문의 이웃 선택 휴리스틱: 이미 고른 이웃보다 기준점에 더 가까운 후보만 골라 그래프가 한쪽 군집에 몰리지 않게 하고,
+     * 부족한 자리는 남은 후보 중 가까운 순으로 채웁니다. candidates는 거리 오름차순이어야 합니다.
+     */
+    private int[] selectNeighbours(List<Candidate> candidates, int max) {
+        int[] selected = new int[Math.min(max, candidates.size())];
+        boolean[] taken = new boolean[candidates.size()];
+        int count = 0;
+        for (int i = 0; i < candidates.size() && count < selected.length; i++) {
+            Candidate candidate = candidates.get(i);
+            boolean diverse = true;
+            for (int j = 0; j < count; j++) {
+                if (distanceBetween(candidate.node(), selected[j]) < candidate.distance()) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected[count++] = candidate.node();
+                taken[i] = true;
+            }
+        }
+        for (int i = 0; i < candidates.size() && count < selected.length; i++) {
+            if (!taken[i]) {
+                selected[count++] = candidates.get(i).node();
+            }
+        }
+        return selected;
+    }
+
+    private int greedyClosest(float[] query, int entry, int level) {
+        int current = entry;
+        float best = distance(query, current);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            int[] neighbours = links[current][level];
+            for (int i = 1; i <= neighbours[0]; i++) {
+                float d = distance(query, neighbours[i]);
+                if (d < best) {
+                    best = d;
+                    current = neighbours[i];
+                    changed = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * tombstone 노드도 탐색 경로로는 사용하지만, liveOnly면 결과에는 넣지 않습니다.
+     */
+    private PriorityQueue<Candidate> searchLayer(float[] query, int entry, int ef, int level, boolean liveOnly) {
+        BitSet visited = new BitSet(size);
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(NEAREST_FIRST);
+        PriorityQueue<Candidate> results = new PriorityQueue<>(NEAREST_FIRST.reversed());
+
+        Candidate start = new Candidate(entry, distance(query, entry));
+        visited.set(entry);
+        candidates.add(start);
+        if (!liveOnly || !deleted.get(entry)) {
+            results.add(start);
+        }
+
+        while (!candidates.isEmpty()) {
+            Candidate current = candidates.poll();
+            if (results.size() >= ef && current.distance() > results.peek().distance()) {
+                break;
+            }
+            int[] neighbours = links[current.node()][level];
+            for (int i = 1; i <= neighbours[0]; i++) {
+                int neighbour = neighbours[i];
+                if (visited.get(neighbour)) {
+                    continue;
+                }
+                visited.set(neighbour);
+                float d = distance(query, neighbour);
+                if (results.size() < ef || d < results.peek().distance()) {
+                    Candidate next = new Candidate(neighbour, d);
+                    candidates.add(next);
+                    if (!liveOnly || !deleted.get(neighbour)) {
+                        results.add(next);
+                        if (results.size() > ef) {
+                            results.poll();
+                        }
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    private void markDeleted(Integer node) {
+        if (node != null && !deleted.get(node)) {
+            deleted.set(node);
+            deletedCount++;
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (size < MIN_COMPACTION_SIZE || deletedCount * 2 <= size) {
+            return;
+        }
+        int live = size - deletedCount;
+        long[] liveIds = new long[live];
+        float[][] liveVectors = new float[live][];
+        int n = 0;
+        for (int node = 0; node < size; node++) {
+            if (!deleted.get(node)) {
+                liveIds[n] = ids[node];
+                liveVectors[n] = new float[dimension];
+                vectors.get(node * dimension, liveVectors[n]);
+                n++;
+            }
+        }
+
+        nodeById.clear();
+        deleted.clear();
+        deletedCount = 0;
+        size = 0;
+        entryPoint = -1;
+        maxLevel = -1;
+        allocate(boundedCapacity(live, Math.max(INITIAL_CAPACITY, 2L * live)));
+        for (int i = 0; i < live; i++) {
+            insert(liveIds[i], liveVectors[i]);
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= capacity) {
+            return;
+        }
+        FloatBuffer previousVectors = vectors;
+        long[] previousIds = ids;
+        int[][][] previousLinks = links;
+        allocate(boundedCapacity(required, 2L * capacity));
+        vectors.put(0, previousVectors, 0, size * dimension);
+        System.arraycopy(previousIds, 0, ids, 0, size);
+        System.arraycopy(previousLinks, 0, links, 0, size);
+    }
+
+    // direct buffer 하나는 Integer.MAX_VALUE 바이트까지만 잡을 수 있어, 384차원이면 약 140만 노드가 상한입니다.
+    private int boundedCapacity(int required, long wanted) {
+        int limit = (int) (Integer.MAX_VALUE / ((long) dimension * Float.BYTES));
+        if (required > limit) {
+            throw new IllegalStateException("HNSW index capacity exceeded: %d vectors of dimension %d (limit %d)"
+                    .formatted(required, dimension, limit));
+        }
+        return (int) Math.min(Math.max(required, wanted), limit);
+    }
+
+    private void allocate(int newCapacity) {
+        capacity = newCapacity;
+        vectors = ByteBuffer.allocateDirect(Math.toIntExact((long) newCapacity * dimension * Float.BYTES))
+                .order(ByteOrder.nativeOrder())
+                .asFloatBuffer();
+        ids = new long[newCapacity];
+        links = new int[newCapacity][][];
+    }
+
+    private int randomLevel() {
+        return (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+    }
+
+    private int maxConnections(int level) {
+        return level == 0 ? maxM0 : m;
+    }
+
+    // 누산기를 4개로 나눠 덧셈 의존 사슬을 끊으면 direct buffer 접근에서도 처리량이 두 배 가까이 오릅니다.
+    private float distance(float[] query, int node) {
+        FloatBuffer data = vectors;
+        int base = node * dimension;
+        float d0 = 0, d1 = 0, d2 = 0, d3 = 0;
+        int i = 0;
+        for (; i + 3 < dimension; i += 4) {
+            d0 += query[i] * data.get(base + i);
+            d1 += query[i + 1] * data.get(base + i + 1);
+            d2 += query[i + 2] * data.get(base + i + 2);
+            d3 += query[i + 3] * data.get(base + i + 3);
+        }
+        for (; i < dimension; i++) {
+            d0 += query[i] * data.get(base + i);
+        }
+        return 1 - (d0 + d1 + d2 + d3);
+    }
+
+    private float distanceBetween(int a, int b) {
+        FloatBuffer data = vectors;
+        int baseA = a * dimension;
+        int baseB = b * dimension;
+        float d0 = 0, d1 = 0, d2 = 0, d3 = 0;
+        int i = 0;
+        for (; i + 3 < dimension; i += 4) {
+            d0 += data.get(baseA + i) * data.get(baseB + i);
+            d1 += data.get(baseA + i + 1) * data.get(baseB + i + 1);
+            d2 += data.get(baseA + i + 2) * data.get(baseB + i + 2);
+            d3 += data.get(baseA + i + 3) * data.get(baseB + i + 3);
+        }
+        for (; i < dimension; i++) {
+            d0 += data.get(baseA + i) * data.get(baseB + i);
+        }
+        return 1 - (d0 + d1 + d2 + d3);
+    }
+
+    private static List<Candidate> sorted(PriorityQueue<Candidate> queue) {
+        List<Candidate> list = new ArrayList<>(queue);
+        list.sort(NEAREST_FIRST);
+        return list;
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        if (norm == 0) {
+            return null;
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        float[] normalized = Arrays.copyOf(vector, vector.length);
+        for (int i = 0; i < normalized.length; i++) {
+            normalized[i] *= scale;
+        }
+        return normalized;
+    }
+
+    public record Hit(long id, float distance) {}
+
+    private record Candidate(int node, float distance) {}
+}
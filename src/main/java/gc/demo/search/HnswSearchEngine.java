@@ -0,0 +1,155 @@
+package gc.demo.search;
+
+import gc.demo.config.SearchProperties;
+import gc.demo.converter.PgvectorTypes;
+import gc.demo.domain.PostChangedEvent;
+import gc.demo.repository.PostRepository;
+import gc.demo.repository.PostSearchHit;
+import org.postgresql.PGStatement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * JVM 내부 HNSW 그래프로 top-k 게시글 id를 찾고, 해당 게시글만 DB에서 읽어옵니다.
+ * 기동 시 post.embedding 전체로 그래프를 만들고, 이후에는 {@link PostChangedEvent}로 증분 반영합니다.
+ * 초기 적재가 끝나기 전의 요청은 pgvector 경로로 처리합니다. 커서로 이어 받는 다음 페이지도 그래프에서 찾으므로
+ * 커서의 유사도와 경계 비교 값이 같은 계산에서 나옵니다.
+ */
+@Component
+@ConditionalOnProperty(prefix = "search", name = "engine", havingValue = "hnsw")
+public class HnswSearchEngine implements VectorSearchEngine {
+    private static final Logger log = LoggerFactory.getLogger(HnswSearchEngine.class);
+    private static final int EMBEDDING_DIMENSION = 384;
+
+    private final PostRepository postRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final SearchProperties.Hnsw config;
+    private final HnswIndex index;
+    // 초기 적재 도중 이벤트로 먼저 반영된 id. 적재 스냅샷의 오래된 값으로 덮어쓰지 않도록 건너뜁니다.
+    private final Set<Long> touchedDuringLoad = ConcurrentHashMap.newKeySet();
+    private volatile boolean loading = true;
+
+    public HnswSearchEngine(PostRepository postRepository,
+                            JdbcTemplate jdbcTemplate,
+                            SearchProperties searchProperties) {
+        this.postRepository = postRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.config = searchProperties.getHnsw();
+        this.index = new HnswIndex(EMBEDDING_DIMENSION, config.getM(), config.getEfConstruction());
+    }
+
+    @Override
+    public String name() {
+        return "hnsw";
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.nanoTime();
+        queryEmbeddings("select id, embedding from post where embedding is not null", null, (id, embedding) -> {
+            if (!touchedDuringLoad.contains(id)) {
+                upsert(id, embedding);
+            }
+        });
+        loading = false;
+        touchedDuringLoad.clear();
+        log.info("HNSW index loaded: {} vectors in {} ms", index.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (loading) {
+            touchedDuringLoad.addAll(event.postIds());
+        }
+        if (event.type() == PostChangedEvent.Type.DELETED) {
+            event.postIds().forEach(index::remove);
+            return;
+        }
+        Map<Long, float[]> embeddings = new HashMap<>();
+        queryEmbeddings("select id, embedding from post where id = any(?) and embedding is not null",
+                event.postIds(), embeddings::put);
+        for (Long id : event.postIds()) {
+            float[] embedding = embeddings.get(id);
+            if (embedding == null) {
+                index.remove(id);
+            } else {
+                upsert(id, embedding);
+            }
+        }
+    }
+
+    @Override
+    public List<PostSearchHit> search(float[] embedding, Pageable pageable, Integer recall, SearchCursor after) {
+        if (loading || embedding == null || embedding.length != EMBEDDING_DIMENSION) {
+            return after == null
+                    ? postRepository.searchByEmbedding(embedding, pageable, recall)
+                    : postRepository.searchByEmbedding(embedding, pageable, recall, after.similarity(), after.id());
+        }
+        int k = pageable.getPageSize();
+        int ef = recall != null ? recall : config.getEfSearch();
+        // 유사도는 1 - float 거리라 거리로 정확히 되돌아갑니다.
+        HnswIndex.Hit last = after == null ? null : new HnswIndex.Hit(after.id(), (float) (1.0 - after.similarity()));
+        List<HnswIndex.Hit> hits = index.searchAfter(embedding, k, ef, last);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, PostSearchHit> rows = postRepository.findSearchHitsByIds(hits.stream().map(HnswIndex.Hit::id).toList())
+                .stream()
+                .collect(Collectors.toMap(PostSearchHit::id, Function.identity()));
+        return hits.stream()
+                .filter(hit -> rows.containsKey(hit.id()))
+                .map(hit -> rows.get(hit.id()).withSimilarity(1.0 - hit.distance()))
+                .sorted(Comparator.comparing(PostSearchHit::similarity).reversed().thenComparing(PostSearchHit::id))
+                .toList();
+    }
+
+    /**
+     * 임베딩을 바이너리 포맷으로 읽습니다. 드라이버는 서버 측 prepared statement에서만 바이너리 수신을 쓰므로
+     * prepareThreshold를 음수로 두어 첫 실행부터 바이너리로 받게 합니다.
+     */
+    private void queryEmbeddings(String sql, List<Long> ids, EmbeddingRowHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PgvectorTypes.register(connection);
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.unwrap(PGStatement.class).setPrepareThreshold(-1);
+            if (ids != null) {
+                statement.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            }
+            return statement;
+        }, (ResultSet rs) -> {
+            handler.accept(rs.getLong(1), PgvectorTypes.toFloatArray(rs.getObject(2)));
+        });
+    }
+
+    private void upsert(long id, float[] embedding) {
+        if (embedding == null || embedding.length != EMBEDDING_DIMENSION) {
+            index.remove(id);
+            return;
+        }
+        index.upsert(id, embedding);
+    }
+
+    @FunctionalInterface
+    private interface EmbeddingRowHandler {
+        void accept(long id, float[] embedding) throws SQLException;
+    }
+}
@@ -0,0 +1,32 @@
+package gc.demo.search;
+
+import gc.demo.repository.PostRepository;
+import gc.demo.repository.PostSearchHit;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(prefix = "search", name = "engine", havingValue = "pgvector", matchIfMissing = true)
+public class PgvectorSearchEngine implements VectorSearchEngine {
+    private final PostRepository postRepository;
+
+    public PgvectorSearchEngine(PostRepository postRepository) {
+        this.postRepository = postRepository;
+    }
+
+    @Override
+    public String name() {
+        return "pgvector";
+    }
+
+    @Override
+    public List<PostSearchHit> search(float[] embedding, Pageable pageable, Integer recall, SearchCursor after) {
+        if (after == null) {
+            return postRepository.searchByEmbedding(embedding, pageable, recall);
+        }
+        return postRepository.searchByEmbedding(embedding, pageable, recall, after.similarity(), after.id());
+    }
+}
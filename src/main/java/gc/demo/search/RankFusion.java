@@ -0,0 +1,37 @@
+package gc.demo.search;
+
+import gc.demo.repository.PostSearchHit;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 서로 점수 척도가 다른 검색 결과 목록을 순위만으로 합칩니다.
+ */
+public final class RankFusion {
+    private RankFusion() {
+    }
+
+    /**
+     * Reciprocal Rank Fusion: 각 목록에서 r번째(1부터)인 문서에 1 / (k + r)을 더해 합계 내림차순으로 정렬합니다.
+     * 같은 게시글이 여러 목록에 있으면 먼저 나온 목록의 결과를 유지하므로, 유사도를 보여줄 목록을 앞에 둡니다.
+     */
+    public static List<PostSearchHit> reciprocalRank(List<List<PostSearchHit>> rankings, int k, int limit) {
+        Map<Long, Double> scores = new HashMap<>();
+        Map<Long, PostSearchHit> hits = new LinkedHashMap<>();
+        for (List<PostSearchHit> ranking : rankings) {
+            for (int rank = 0; rank < ranking.size(); rank++) {
+                PostSearchHit hit = ranking.get(rank);
+                scores.merge(hit.id(), 1.0 / (k + rank + 1), Double::sum);
+                hits.putIfAbsent(hit.id(), hit);
+            }
+        }
+        return hits.values().stream()
+                .sorted(Comparator.comparingDouble((PostSearchHit hit) -> scores.get(hit.id())).reversed())
+                .limit(limit)
+                .toList();
+    }
+}
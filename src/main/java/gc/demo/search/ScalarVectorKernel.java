@@ -0,0 +1,70 @@
+package gc.demo.search;
+
+/**
+ * 순수 자바 구현. 누산기를 4개로 나눠 덧셈 의존 사슬을 끊어 JIT가 명령 수준 병렬성을 살릴 수 있게 합니다.
+ */
+final class ScalarVectorKernel implements VectorKernel {
+
+    @Override
+    public float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (; i + 3 < length; i += 4) {
+            s0 += a[aOffset + i] * b[bOffset + i];
+            s1 += a[aOffset + i + 1] * b[bOffset + i + 1];
+            s2 += a[aOffset + i + 2] * b[bOffset + i + 2];
+            s3 += a[aOffset + i + 3] * b[bOffset + i + 3];
+        }
+        for (; i < length; i++) {
+            s0 += a[aOffset + i] * b[bOffset + i];
+        }
+        return s0 + s1 + s2 + s3;
+    }
+
+    @Override
+    public float squaredL2(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (; i + 3 < length; i += 4) {
+            float d0 = a[aOffset + i] - b[bOffset + i];
+            float d1 = a[aOffset + i + 1] - b[bOffset + i + 1];
+            float d2 = a[aOffset + i + 2] - b[bOffset + i + 2];
+            float d3 = a[aOffset + i + 3] - b[bOffset + i + 3];
+            s0 += d0 * d0;
+            s1 += d1 * d1;
+            s2 += d2 * d2;
+            s3 += d3 * d3;
+        }
+        for (; i < length; i++) {
+            float d = a[aOffset + i] - b[bOffset + i];
+            s0 += d * d;
+        }
+        return s0 + s1 + s2 + s3;
+    }
+
+    @Override
+    public float cosine(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        float dot0 = 0, dot1 = 0, normA0 = 0, normA1 = 0, normB0 = 0, normB1 = 0;
+        int i = 0;
+        for (; i + 1 < length; i += 2) {
+            float x0 = a[aOffset + i];
+            float y0 = b[bOffset + i];
+            float x1 = a[aOffset + i + 1];
+            float y1 = b[bOffset + i + 1];
+            dot0 += x0 * y0;
+            dot1 += x1 * y1;
+            normA0 += x0 * x0;
+            normA1 += x1 * x1;
+            normB0 += y0 * y0;
+            normB1 += y1 * y1;
+        }
+        for (; i < length; i++) {
+            float x = a[aOffset + i];
+            float y = b[bOffset + i];
+            dot0 += x * y;
+            normA0 += x * x;
+            normB0 += y * y;
+        }
+        return VectorMath.cosine(dot0 + dot1, normA0 + normA1, normB0 + normB1);
+    }
+}
@@ -0,0 +1,64 @@
+package gc.demo.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 다음 검색 페이지를 이어서 찾기 위한 위치. 클라이언트에는 Base64URL 문자열로만 노출합니다.
+ * 벡터 검색은 (마지막 유사도, 마지막 id) 이후부터, 전문 검색은 마지막 게시글의 순위 점수를 다시 계산해 그 이후부터 찾습니다.
+ *
+ * @param source     커서를 만든 검색 방식(VECTOR 또는 LEXICAL)
+ * @param similarity 마지막 결과의 유사도. 전문 검색은 null
+ * @param id         마지막 결과의 게시글 id
+ */
+public record SearchCursor(SearchMode source, Double similarity, long id) {
+    private static final String VERSION = "1";
+    private static final String INVALID = "잘못된 검색 커서입니다";
+
+    public SearchCursor {
+        if (source != SearchMode.VECTOR && source != SearchMode.LEXICAL) {
+            throw new IllegalArgumentException("커서를 지원하지 않는 검색 방식입니다: " + source);
+        }
+    }
+
+    public static SearchCursor vector(double similarity, long id) {
+        return new SearchCursor(SearchMode.VECTOR, similarity, id);
+    }
+
+    public static SearchCursor lexical(long id) {
+        return new SearchCursor(SearchMode.LEXICAL, null, id);
+    }
+
+    // 유사도는 비트 그대로 옮겨야 다음 페이지의 경계 비교가 DB가 계산한 값과 정확히 일치합니다.
+    public String encode() {
+        String similarityBits = similarity == null ? "" : Long.toHexString(Double.doubleToRawLongBits(similarity));
+        String raw = String.join(":", VERSION, source.name(), similarityBits, Long.toString(id));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return 값이 비어 있으면 null
+     * @throws IllegalArgumentException 형식이 맞지 않는 커서
+     */
+    public static SearchCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value.trim()), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", -1);
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException(INVALID);
+            }
+            SearchMode source = SearchMode.valueOf(parts[1]);
+            Double similarity = parts[2].isEmpty() ? null : Double.longBitsToDouble(Long.parseUnsignedLong(parts[2], 16));
+            if (source == SearchMode.VECTOR && (similarity == null || similarity.isNaN())) {
+                throw new IllegalArgumentException(INVALID);
+            }
+            return new SearchCursor(source, similarity, Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException과 Base64 디코딩 오류도 여기로 옵니다.
+            throw new IllegalArgumentException(INVALID, e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package gc.demo.search;
+
+import java.util.Locale;
+
+/**
+ * 검색 방식. AUTO는 벡터 → 전문 검색 → 트라이그램 순으로 결과가 나올 때까지 내려가고,
+ * HYBRID는 벡터와 전문 검색을 동시에 실행해 순위를 합칩니다.
+ */
+public enum SearchMode {
+    AUTO, VECTOR, LEXICAL, FUZZY, HYBRID;
+
+    public static SearchMode from(String value) {
+        if (value == null || value.isBlank()) {
+            return AUTO;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("지원하지 않는 검색 모드입니다: " + value);
+        }
+    }
+}
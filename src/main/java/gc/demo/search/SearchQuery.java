@@ -0,0 +1,37 @@
+package gc.demo.search;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 검색 요청 파라미터.
+ *
+ * @param embedding 클라이언트가 제공한 쿼리 임베딩. null이면 필요할 때 q로 생성
+ * @param recall    벡터 검색의 recall/지연시간 조절값(HNSW ef_search 또는 IVFFlat probes). null이면 설정 기본값
+ * @param cursor    이전 응답의 nextCursor. 있으면 AUTO 모드도 커서를 만든 검색 방식으로만 이어서 찾습니다
+ */
+public record SearchQuery(String q, int limit, List<Double> embedding, Integer recall, SearchMode mode,
+                          SearchCursor cursor) {
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    public SearchQuery {
+        limit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        mode = mode == null ? SearchMode.AUTO : mode;
+        if (cursor != null && mode != SearchMode.AUTO && mode != cursor.source()) {
+            throw new IllegalArgumentException("검색 커서는 같은 검색 방식(" + cursor.source().name().toLowerCase(Locale.ROOT)
+                    + ")으로만 이어서 조회할 수 있습니다");
+        }
+    }
+
+    public static SearchQuery of(String q, int limit) {
+        return new SearchQuery(q, limit, null, null, SearchMode.AUTO, null);
+    }
+
+    /**
+     * 커서가 있으면 커서를 만든 검색 방식, 없으면 요청한 검색 방식.
+     */
+    public SearchMode effectiveMode() {
+        return cursor != null ? cursor.source() : mode;
+    }
+}
@@ -0,0 +1,173 @@
+package gc.demo.search;
+
+import gc.demo.repository.PostTitle;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 게시글 제목과 slug의 접두사 검색용 정렬 배열 인덱스.
+ * 제목의 각 단어부터 시작하는 접미 문자열을 키로 넣어 두므로 "boot"로 "Spring Boot 시작하기"를 찾을 수 있습니다.
+ * 조회는 이진 탐색 한 번과 짧은 순차 탐색이며, 변경은 새 배열을 만들어 한 번에 바꿔 끼우므로(copy-on-write)
+ * 조회 쪽에는 락이 없습니다. 변경은 게시글 수에 비례하는 병합 비용이 들지만 글 쓰기 빈도가 낮아 문제가 되지 않습니다.
+ */
+public class TitlePrefixIndex {
+    // 긴 제목의 접미 키가 메모리를 과하게 쓰지 않도록 자릅니다. 자동완성 입력은 이보다 길 일이 거의 없습니다.
+    private static final int MAX_KEY_LENGTH = 64;
+    // 짧은 접두사("s")도 일정 시간 안에 답하도록 살펴보는 키 수를 제한합니다.
+    private static final int MAX_SCANNED_KEYS = 512;
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // 순위가 낮을수록 앞에 옵니다.
+    private static final byte TITLE_START = 0;
+    private static final byte TITLE_WORD = 1;
+    private static final byte SLUG = 2;
+    private static final Comparator<Term> TERM_ORDER = Comparator.comparing(Term::key)
+            .thenComparingLong(Term::id)
+            .thenComparingInt(Term::kind);
+
+    private volatile Snapshot snapshot = new Snapshot(new String[0], new long[0], new byte[0], Map.of());
+
+    public int size() {
+        return snapshot.titles().size();
+    }
+
+    /**
+     * 인덱스 전체를 주어진 게시글로 다시 만듭니다.
+     */
+    public synchronized void replaceAll(Collection<PostTitle> posts) {
+        Map<Long, PostTitle> titles = new HashMap<>();
+        posts.forEach(post -> titles.put(post.id(), post));
+        snapshot = build(sortedTerms(titles.values()), titles);
+    }
+
+    /**
+     * removed의 게시글을 빼고 upserts를 넣거나 갱신합니다. 두 목록에 같은 id가 있으면 upserts가 남습니다.
+     */
+    public synchronized void update(Collection<Long> removed, Collection<PostTitle> upserts) {
+        Snapshot current = snapshot;
+        Set<Long> dropped = new HashSet<>(removed);
+        upserts.forEach(post -> dropped.add(post.id()));
+
+        Map<Long, PostTitle> titles = new HashMap<>(current.titles());
+        titles.keySet().removeAll(dropped);
+        upserts.forEach(post -> titles.put(post.id(), post));
+
+        // 기존 배열은 이미 정렬되어 있으므로, 바뀐 게시글의 키만 정렬해 한 번 병합합니다.
+        List<Term> added = sortedTerms(upserts);
+        List<Term> merged = new ArrayList<>(current.keys().length + added.size());
+        int a = 0;
+        for (int i = 0; i < current.keys().length; i++) {
+            if (dropped.contains(current.ids()[i])) {
+                continue;
+            }
+            Term existing = new Term(current.keys()[i], current.ids()[i], current.kinds()[i]);
+            while (a < added.size() && TERM_ORDER.compare(added.get(a), existing) < 0) {
+                merged.add(added.get(a++));
+            }
+            merged.add(existing);
+        }
+        merged.addAll(added.subList(a, added.size()));
+        snapshot = build(merged, titles);
+    }
+
+    /**
+     * @return 제목 처음부터 일치, 제목 중간 단어부터 일치, slug 일치 순이며 같은 순위는 짧은 제목이 먼저인 최대 limit개
+     */
+    public List<PostTitle> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Snapshot current = snapshot;
+        String[] keys = current.keys();
+        Map<Long, Byte> best = new LinkedHashMap<>();
+        int start = lowerBound(keys, key);
+        int end = Math.min(keys.length, start + MAX_SCANNED_KEYS);
+        for (int i = start; i < end && keys[i].startsWith(key); i++) {
+            best.merge(current.ids()[i], current.kinds()[i], (x, y) -> x <= y ? x : y);
+        }
+        return best.entrySet().stream()
+                .sorted(Map.Entry.<Long, Byte>comparingByValue()
+                        .thenComparing(entry -> current.titles().get(entry.getKey()).title().length())
+                        .thenComparing(entry -> current.titles().get(entry.getKey()).title()))
+                .limit(limit)
+                .map(entry -> current.titles().get(entry.getKey()))
+                .toList();
+    }
+
+    /**
+     * 유니코드 NFC 정규화와 소문자화 후 글자·숫자가 아닌 문자를 공백 하나로 바꿉니다. 색인 키와 질의에 똑같이 적용됩니다.
+     */
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String composed = Normalizer.normalize(value, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+        return SEPARATORS.matcher(composed).replaceAll(" ").strip();
+    }
+
+    private static List<Term> sortedTerms(Collection<PostTitle> posts) {
+        List<Term> terms = new ArrayList<>();
+        for (PostTitle post : posts) {
+            String title = normalize(post.title());
+            if (!title.isEmpty()) {
+                terms.add(new Term(truncate(title), post.id(), TITLE_START));
+                for (int i = title.indexOf(' '); i >= 0; i = title.indexOf(' ', i + 1)) {
+                    terms.add(new Term(truncate(title.substring(i + 1)), post.id(), TITLE_WORD));
+                }
+            }
+            String slug = normalize(post.slug());
+            if (!slug.isEmpty() && !slug.equals(title)) {
+                terms.add(new Term(truncate(slug), post.id(), SLUG));
+            }
+        }
+        terms.sort(TERM_ORDER);
+        return terms;
+    }
+
+    private static String truncate(String key) {
+        return key.length() <= MAX_KEY_LENGTH ? key : key.substring(0, MAX_KEY_LENGTH);
+    }
+
+    private static int lowerBound(String[] keys, String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static Snapshot build(List<Term> terms, Map<Long, PostTitle> titles) {
+        String[] keys = new String[terms.size()];
+        long[] ids = new long[terms.size()];
+        byte[] kinds = new byte[terms.size()];
+        for (int i = 0; i < terms.size(); i++) {
+            Term term = terms.get(i);
+            keys[i] = term.key();
+            ids[i] = term.id();
+            kinds[i] = term.kind();
+        }
+        return new Snapshot(keys, ids, kinds, Map.copyOf(titles));
+    }
+
+    private record Term(String key, long id, byte kind) {}
+
+    private record Snapshot(String[] keys, long[] ids, byte[] kinds, Map<Long, PostTitle> titles) {}
+}
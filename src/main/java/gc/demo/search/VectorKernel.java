@@ -0,0 +1,15 @@
+package gc.demo.search;
+
+/**
+ * {@link VectorMath}가 위임하는 내적/거리 계산. 배열의 offset부터 length개 원소를 사용합니다.
+ */
+interface VectorKernel {
+    float dot(float[] a, int aOffset, float[] b, int bOffset, int length);
+
+    float squaredL2(float[] a, int aOffset, float[] b, int bOffset, int length);
+
+    /**
+     * 한 번의 순회로 a·b, |a|², |b|²를 구해 코사인 유사도를 돌려줍니다. 영벡터면 0입니다.
+     */
+    float cosine(float[] a, int aOffset, float[] b, int bOffset, int length);
+}
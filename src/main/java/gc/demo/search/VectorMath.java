@@ -0,0 +1,123 @@
+package gc.demo.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+
+/**
+ * 임베딩 벡터 연산.
+ * JVM이 {@code --add-modules jdk.incubator.vector}로 실행되면 SIMD 구현을, 아니면 스칼라 구현을 사용합니다.
+ * {@code -Dgc.demo.simd=false}로 SIMD 구현을 끌 수 있습니다.
+ */
+public final class VectorMath {
+    private static final Logger log = LoggerFactory.getLogger(VectorMath.class);
+    private static final String SIMD_MODULE = "jdk.incubator.vector";
+    private static final VectorKernel KERNEL = loadKernel();
+
+    private VectorMath() {
+    }
+
+    /**
+     * @return 사용 중인 구현 이름({@code simd} 또는 {@code scalar})
+     */
+    public static String implementation() {
+        return KERNEL instanceof ScalarVectorKernel ? "scalar" : "simd";
+    }
+
+    public static float dot(float[] a, float[] b) {
+        requireSameLength(a, b);
+        return KERNEL.dot(a, 0, b, 0, a.length);
+    }
+
+    public static float squaredL2(float[] a, float[] b) {
+        requireSameLength(a, b);
+        return KERNEL.squaredL2(a, 0, b, 0, a.length);
+    }
+
+    public static double l2Distance(float[] a, float[] b) {
+        return Math.sqrt(squaredL2(a, b));
+    }
+
+    /**
+     * @return 코사인 유사도. 길이가 다르거나 영벡터면 0
+     */
+    public static double cosineSimilarity(float[] a, float[] b) {
+        if (a == null || b == null || a.length != b.length) {
+            return 0;
+        }
+        return KERNEL.cosine(a, 0, b, 0, a.length);
+    }
+
+    /**
+     * 행 우선(row-major)으로 이어 붙인 {@code rows × query.length} 행렬의 각 행과 query의 내적을 out에 씁니다.
+     */
+    public static void dotAll(float[] query, float[] matrix, int rows, float[] out) {
+        int dimension = requireMatrix(query, matrix, rows, out);
+        for (int row = 0; row < rows; row++) {
+            out[row] = KERNEL.dot(query, 0, matrix, row * dimension, dimension);
+        }
+    }
+
+    /**
+     * {@link #dotAll}과 같은 배치로 각 행과 query의 코사인 유사도를 out에 씁니다. 영벡터 행은 0입니다.
+     */
+    public static void cosineAll(float[] query, float[] matrix, int rows, float[] out) {
+        int dimension = requireMatrix(query, matrix, rows, out);
+        for (int row = 0; row < rows; row++) {
+            out[row] = KERNEL.cosine(query, 0, matrix, row * dimension, dimension);
+        }
+    }
+
+    static float cosine(float dot, float normA, float normB) {
+        if (normA == 0 || normB == 0) {
+            return 0;
+        }
+        return (float) (dot / (Math.sqrt(normA) * Math.sqrt(normB)));
+    }
+
+    private static void requireSameLength(float[] a, float[] b) {
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("벡터 차원이 다릅니다: " + a.length + " != " + b.length);
+        }
+    }
+
+    private static int requireMatrix(float[] query, float[] matrix, int rows, float[] out) {
+        int dimension = query.length;
+        if (rows < 0 || (long) rows * dimension > matrix.length || out.length < rows) {
+            throw new IllegalArgumentException("행렬 크기가 맞지 않습니다: rows=" + rows + ", dimension=" + dimension
+                    + ", matrix=" + matrix.length + ", out=" + out.length);
+        }
+        return dimension;
+    }
+
+    private static VectorKernel loadKernel() {
+        if (!Boolean.parseBoolean(System.getProperty("gc.demo.simd", "true"))) {
+            log.info("Vector math uses the scalar kernel (gc.demo.simd=false)");
+            return new ScalarVectorKernel();
+        }
+        Optional<VectorKernel> simd = simdKernel();
+        log.info("Vector math uses the {} kernel", simd.isPresent() ? "SIMD" : "scalar");
+        return simd.orElseGet(ScalarVectorKernel::new);
+    }
+
+    /**
+     * SIMD 구현은 src/simd에 따로 컴파일되고 모듈이 있을 때만 리플렉션으로 불러와, 모듈 없이 실행해도 링크 오류가 나지 않게 합니다.
+     *
+     * @return 모듈이 없거나 CPU가 지원하지 않으면 빈 값
+     */
+    static Optional<VectorKernel> simdKernel() {
+        if (ModuleLayer.boot().findModule(SIMD_MODULE).isEmpty()) {
+            log.debug("{} is not enabled", SIMD_MODULE);
+            return Optional.empty();
+        }
+        try {
+            return Optional.of((VectorKernel) Class.forName("gc.demo.search.SimdVectorKernel")
+                    .getDeclaredConstructor()
+                    .newInstance());
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            log.warn("SIMD vector kernel unavailable; falling back to scalar: {}", e.toString());
+            return Optional.empty();
+        }
+    }
+}
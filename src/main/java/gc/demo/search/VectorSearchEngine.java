@@ -0,0 +1,27 @@
+package gc.demo.search;
+
+import gc.demo.repository.PostSearchHit;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * 임베딩 최근접 이웃 검색 백엔드. {@code search.engine} 설정으로 구현체를 선택합니다.
+ */
+public interface VectorSearchEngine {
+    String name();
+
+    /**
+     * @param recall 탐색 폭(ef_search/probes). null이면 구현체의 기본값
+     * @return 유사도 내림차순으로 정렬된 검색 결과
+     */
+    default List<PostSearchHit> search(float[] embedding, Pageable pageable, Integer recall) {
+        return search(embedding, pageable, recall, null);
+    }
+
+    /**
+     * @param after 이전 페이지의 마지막 결과. null이면 첫 페이지
+     * @return 유사도 내림차순(동점은 id 오름차순)으로 정렬된 after 다음 결과
+     */
+    List<PostSearchHit> search(float[] embedding, Pageable pageable, Integer recall, SearchCursor after);
+}
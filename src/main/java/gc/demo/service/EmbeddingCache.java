@@ -0,0 +1,131 @@
+package gc.demo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import gc.demo.config.EmbeddingProperties;
+import gc.demo.entity.EmbeddingCacheEntry;
+import gc.demo.repository.EmbeddingCacheRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * ({@link EmbeddingProvider#name()}, sha256(text))를 키로 하는 2단계 임베딩 캐시.
+ * 1단계는 크기 제한이 있는 메모리 캐시(Caffeine W-TinyLFU), 2단계는 embedding.cache.persistent=true일 때만 쓰는
+ * embedding_cache 테이블입니다. 단계별 hit/miss는 {@code embedding.cache.requests} 메트릭으로 노출됩니다.
+ */
+@Component
+public class EmbeddingCache {
+    private static final Logger log = LoggerFactory.getLogger(EmbeddingCache.class);
+
+    private final EmbeddingProperties.Cache config;
+    private final EmbeddingCacheRepository repository;
+    private final TransactionTemplate requiresNew;
+    private final Cache<String, float[]> memory;
+    private final Counter memoryHits;
+    private final Counter memoryMisses;
+    private final Counter persistentHits;
+    private final Counter persistentMisses;
+
+    public EmbeddingCache(EmbeddingProperties embeddingProperties,
+                          EmbeddingCacheRepository repository,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry) {
+        this.config = embeddingProperties.getCache();
+        this.repository = repository;
+        // 캐시 저장 실패가 호출자의 트랜잭션을 rollback-only로 만들지 않도록 별도 트랜잭션에서 씁니다.
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.memory = Caffeine.newBuilder()
+                .maximumSize(config.getMaxSize())
+                .build();
+        this.memoryHits = counter(meterRegistry, "memory", "hit");
+        this.memoryMisses = counter(meterRegistry, "memory", "miss");
+        this.persistentHits = counter(meterRegistry, "persistent", "hit");
+        this.persistentMisses = counter(meterRegistry, "persistent", "miss");
+    }
+
+    public Optional<float[]> get(String model, String text) {
+        if (!config.isEnabled()) {
+            return Optional.empty();
+        }
+        String key = key(model, text);
+        float[] cached = memory.getIfPresent(key);
+        if (cached != null) {
+            memoryHits.increment();
+            return Optional.of(cached.clone());
+        }
+        memoryMisses.increment();
+
+        if (!config.isPersistent()) {
+            return Optional.empty();
+        }
+        try {
+            Optional<float[]> stored = repository.findById(key).map(EmbeddingCacheEntry::getEmbedding);
+            if (stored.isPresent()) {
+                persistentHits.increment();
+                memory.put(key, stored.get());
+                return Optional.of(stored.get().clone());
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to read persistent embedding cache", e);
+        }
+        persistentMisses.increment();
+        return Optional.empty();
+    }
+
+    public void put(String model, String text, float[] embedding) {
+        if (!config.isEnabled() || embedding == null || embedding.length == 0) {
+            return;
+        }
+        String key = key(model, text);
+        memory.put(key, embedding.clone());
+
+        if (!config.isPersistent()) {
+            return;
+        }
+        try {
+            requiresNew.executeWithoutResult(status -> {
+                EmbeddingCacheEntry entry = new EmbeddingCacheEntry();
+                entry.setCacheKey(key);
+                entry.setModel(model);
+                entry.setEmbedding(embedding);
+                repository.save(entry);
+            });
+        } catch (DataAccessException e) {
+            log.debug("Skipping persistent embedding cache write for {}: {}", key, e.getMessage());
+        }
+    }
+
+    private static String key(String model, String text) {
+        return model + ":" + sha256(text);
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static Counter counter(MeterRegistry registry, String tier, String result) {
+        return Counter.builder("embedding.cache.requests")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,235 @@
+package gc.demo.service;
+
+import gc.demo.config.EmbeddingProperties;
+import gc.demo.domain.EmbeddingStatus;
+import gc.demo.domain.PostChangedEvent;
+import gc.demo.entity.EmbeddingOutbox;
+import gc.demo.repository.EmbeddingOutboxRepository;
+import gc.demo.repository.PostRepository;
+import gc.demo.util.Snowflake;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 게시글 임베딩을 요청 스레드 밖에서 생성하는 트랜잭셔널 아웃박스.
+ * 게시글 저장 트랜잭션에서 {@link #enqueue}로 행을 남기고, 스케줄러가 만기된 행을 잡아 워커 풀에서 임베딩을 만든 뒤
+ * post.embedding에 기록합니다. 실패하면 지수 백오프로 재시도하고, 최대 횟수를 넘기면 게시글을 FAILED로 표시합니다.
+ * 제공자가 호출을 거절한 경우(서킷 열림, 동시 호출 한도, API 키 없음)는 실패로 세지 않고 미루며,
+ * FAILED 게시글은 애플리케이션이 기동할 때 다시 적재합니다.
+ */
+@Service
+public class EmbeddingOutboxService {
+    private static final Logger log = LoggerFactory.getLogger(EmbeddingOutboxService.class);
+
+    private final EmbeddingOutboxRepository outboxRepository;
+    private final PostRepository postRepository;
+    private final EmbeddingProvider embeddingProvider;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Snowflake snowflake;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final EmbeddingProperties.Outbox config;
+
+    public EmbeddingOutboxService(EmbeddingOutboxRepository outboxRepository,
+                                  PostRepository postRepository,
+                                  EmbeddingProvider embeddingProvider,
+                                  ApplicationEventPublisher eventPublisher,
+                                  Snowflake snowflake,
+                                  @Qualifier("embeddingExecutor") ThreadPoolTaskExecutor executor,
+                                  PlatformTransactionManager transactionManager,
+                                  EmbeddingProperties embeddingProperties) {
+        this.outboxRepository = outboxRepository;
+        this.postRepository = postRepository;
+        this.embeddingProvider = embeddingProvider;
+        this.eventPublisher = eventPublisher;
+        this.snowflake = snowflake;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.config = embeddingProperties.getOutbox();
+    }
+
+    /**
+     * 호출자의 트랜잭션에 참여해 임베딩 생성을 예약합니다. 이미 대기 중인 행이 있으면 재시도 상태를 초기화합니다.
+     * 워커가 같은 행을 완료 처리하는 중이면 그 트랜잭션이 끝날 때까지 기다렸다가, 행이 지워졌으면 새로 만듭니다.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(Long postId) {
+        EmbeddingOutbox outbox = outboxRepository.findByPostIdForUpdate(postId).orElseGet(() -> {
+            EmbeddingOutbox created = new EmbeddingOutbox();
+            created.setId(snowflake.nextId());
+            created.setPostId(postId);
+            return created;
+        });
+        outbox.setRequests(outbox.getRequests() + 1);
+        outbox.setAttempts(0);
+        outbox.setLastError(null);
+        outbox.setNextAttemptAt(OffsetDateTime.now());
+        outboxRepository.save(outbox);
+    }
+
+    /**
+     * 클라이언트가 임베딩을 직접 제공한 경우 대기 중인 생성 요청을 취소합니다.
+     * 워커가 먼저 행을 잠갔으면 그 결과가 커밋된 뒤에 호출자의 임베딩이 기록되고, 취소가 먼저면 워커는 결과를 버립니다.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void cancel(Long postId) {
+        outboxRepository.findByPostIdForUpdate(postId).ifPresent(outboxRepository::delete);
+    }
+
+    /**
+     * 재시도를 다 쓰고 FAILED로 남은 게시글을 다시 PENDING으로 돌려 적재합니다. 설정을 고치고 다시 띄우면 임베딩이 채워집니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void requeueFailed() {
+        try {
+            Integer requeued = transactionTemplate.execute(status -> {
+                List<Long> postIds = postRepository.findIdsByEmbeddingStatus(EmbeddingStatus.FAILED);
+                for (Long postId : postIds) {
+                    postRepository.updateEmbeddingStatus(postId, EmbeddingStatus.PENDING.name());
+                    enqueue(postId);
+                }
+                return postIds.size();
+            });
+            if (requeued != null && requeued > 0) {
+                log.info("Re-queued embedding generation for {} failed post(s)", requeued);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to re-queue posts with failed embeddings", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${embedding.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        List<Claim> claims = transactionTemplate.execute(status -> claimDue());
+        if (claims == null || claims.isEmpty()) {
+            return;
+        }
+        CompletableFuture<?>[] tasks = claims.stream()
+                .map(claim -> CompletableFuture.runAsync(() -> process(claim), executor))
+                .toArray(CompletableFuture[]::new);
+        // 다음 폴링이 아직 처리 중인 행과 겹치지 않도록 이번 배치가 끝날 때까지 기다립니다.
+        CompletableFuture.allOf(tasks).join();
+    }
+
+    private List<Claim> claimDue() {
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime leaseUntil = now.plusNanos(config.getLeaseMs() * 1_000_000);
+        return outboxRepository.findDueForUpdate(now, config.getBatchSize()).stream()
+                .map(outbox -> {
+                    outbox.setNextAttemptAt(leaseUntil);
+                    return new Claim(outbox.getId(), outbox.getPostId(), outbox.getRequests(), outbox.getAttempts());
+                })
+                .toList();
+    }
+
+    private void process(Claim claim) {
+        // content는 지연 로딩 속성이라 트랜잭션 안에서 읽어 둡니다.
+        Optional<String> text = transactionTemplate.execute(status -> postRepository.findById(claim.postId())
+                .map(post -> post.getTitle() + "\n" + post.getContent()));
+        if (text == null || text.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.deleteById(claim.id()));
+            return;
+        }
+
+        Optional<float[]> embedding;
+        String error = "embedding provider returned no result";
+        try {
+            embedding = embeddingProvider.embedInBackground(text.get());
+        } catch (EmbeddingUnavailableException e) {
+            postpone(claim, e.getMessage());
+            return;
+        } catch (RuntimeException e) {
+            embedding = Optional.empty();
+            error = e.getMessage();
+        }
+
+        if (embedding.isPresent()) {
+            complete(claim, embedding.get());
+        } else {
+            fail(claim, error);
+        }
+    }
+
+    private void complete(Claim claim, float[] embedding) {
+        boolean written = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            EmbeddingOutbox outbox = outboxRepository.findByIdForUpdate(claim.id()).orElse(null);
+            if (outbox == null || outbox.getRequests() != claim.requests()) {
+                // 처리 중에 게시글이 다시 수정됨. 최신 내용으로 다시 생성되도록 결과를 버립니다.
+                return false;
+            }
+            postRepository.updateEmbedding(claim.postId(), embedding);
+            outboxRepository.delete(outbox);
+            return true;
+        }));
+        if (written) {
+            eventPublisher.publishEvent(PostChangedEvent.saved(claim.postId()));
+        }
+    }
+
+    private void fail(Claim claim, String error) {
+        transactionTemplate.executeWithoutResult(status -> {
+            EmbeddingOutbox outbox = outboxRepository.findByIdForUpdate(claim.id()).orElse(null);
+            if (outbox == null || outbox.getRequests() != claim.requests()) {
+                return;
+            }
+            int attempts = claim.attempts() + 1;
+            if (attempts >= config.getMaxAttempts()) {
+                log.error("Giving up embedding generation for post {} after {} attempts: {}",
+                        claim.postId(), attempts, error);
+                postRepository.updateEmbeddingStatus(claim.postId(), EmbeddingStatus.FAILED.name());
+                outboxRepository.delete(outbox);
+                return;
+            }
+            long delayMs = backoff(attempts);
+            log.warn("Embedding generation for post {} failed (attempt {}), retrying in {} ms: {}",
+                    claim.postId(), attempts, delayMs, error);
+            outbox.setAttempts(attempts);
+            outbox.setLastError(error);
+            outbox.setNextAttemptAt(OffsetDateTime.now().plusNanos(delayMs * 1_000_000));
+        });
+    }
+
+    // 시도하지 못한 것이므로 attempts는 그대로 두고, 제공자가 돌아올 때까지 일정 간격으로 미룹니다.
+    private void postpone(Claim claim, String reason) {
+        transactionTemplate.executeWithoutResult(status -> {
+            EmbeddingOutbox outbox = outboxRepository.findByIdForUpdate(claim.id()).orElse(null);
+            if (outbox == null || outbox.getRequests() != claim.requests()) {
+                return;
+            }
+            long delayMs = jitter(config.getUnavailableRetryMs());
+            log.debug("Embedding provider unavailable for post {}, retrying in {} ms: {}", claim.postId(), delayMs, reason);
+            outbox.setLastError(reason);
+            outbox.setNextAttemptAt(OffsetDateTime.now().plusNanos(delayMs * 1_000_000));
+        });
+    }
+
+    // 지수 백오프에 절반 범위의 jitter를 더해 장애 복구 직후 재시도가 한꺼번에 몰리지 않게 합니다.
+    private long backoff(int attempts) {
+        long exponential = config.getInitialBackoffMs() << Math.min(attempts - 1, 20);
+        return jitter(Math.min(config.getMaxBackoffMs(), exponential));
+    }
+
+    private static long jitter(long delayMs) {
+        return delayMs / 2 + ThreadLocalRandom.current().nextLong(delayMs / 2 + 1);
+    }
+
+    private record Claim(Long id, Long postId, int requests, int attempts) {}
+}
@@ -0,0 +1,37 @@
+package gc.demo.service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 텍스트 임베딩(384차원) 생성기. {@code embedding.provider} 설정으로 구현체를 선택합니다.
+ */
+public interface EmbeddingProvider {
+    int DIMENSION = 384;
+
+    /**
+     * 제공자와 모델을 함께 나타내는 이름. {@link EmbeddingCache}의 키에 들어가므로, 다른 벡터를 만드는 설정이면 이름도 달라야
+     * 제공자나 모델을 바꾼 뒤 이전 모델의 벡터가 캐시에서 나오지 않습니다.
+     */
+    String name();
+
+    /**
+     * @return 빈 입력이거나 생성에 실패하면 empty
+     */
+    Optional<float[]> embed(String input);
+
+    /**
+     * 백그라운드 생성(임베딩 아웃박스)용 {@link #embed}. 제공자가 호출을 거절해 시도조차 못 했으면 empty 대신
+     * {@link EmbeddingUnavailableException}을 던져, 호출자가 실패 횟수를 쓰지 않고 미룰 수 있게 합니다.
+     *
+     * @return 빈 입력이거나 생성에 실패하면 empty
+     */
+    default Optional<float[]> embedInBackground(String input) {
+        return embed(input);
+    }
+
+    /**
+     * @return inputs와 같은 크기의 목록. 빈 입력이거나 생성에 실패한 위치는 null
+     */
+    List<float[]> embedAll(List<String> inputs);
+}
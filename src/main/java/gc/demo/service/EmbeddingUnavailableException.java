@@ -0,0 +1,15 @@
+package gc.demo.service;
+
+/**
+ * 임베딩 제공자가 호출을 받아들이지 않아 생성을 시도하지 못했음을 나타냅니다(서킷 열림, 동시 호출 한도, 설정 누락).
+ * 입력이나 제공자 응답의 문제가 아니므로 호출자는 실패로 세지 않고 나중에 다시 시도합니다.
+ */
+public class EmbeddingUnavailableException extends RuntimeException {
+    public EmbeddingUnavailableException(String message) {
+        super(message);
+    }
+
+    public EmbeddingUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,108 @@
+package gc.demo.service;
+
+import gc.demo.config.FeedProperties;
+import gc.demo.domain.PostChangedEvent;
+import gc.demo.repository.PostFeedRow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+/**
+ * 피드 타입별로 최신 게시글 depth개를 메모리에 두고, 그 범위 안에서 끝나는 페이지를 DB 없이 응답합니다.
+ * 스냅샷이 없을 때 동시에 들어온 요청은 하나의 적재만 기다리며(single-flight), 게시글이 바뀌면({@link PostChangedEvent})
+ * 모든 스냅샷을 버립니다. hit/miss는 {@code feed.cache.requests}, 적재 횟수는 {@code feed.cache.loads} 메트릭으로 노출됩니다.
+ */
+@Component
+public class FeedCache {
+    private static final String ALL = "all";
+
+    private final FeedProperties.Cache config;
+    // 적재 중인 스냅샷도 future로 들어 있어 같은 타입의 요청은 그 결과를 기다립니다.
+    private final Map<String, CompletableFuture<List<PostFeedRow>>> snapshots = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public FeedCache(FeedProperties feedProperties, MeterRegistry meterRegistry) {
+        this.config = feedProperties.getCache();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param loader 스냅샷이 없을 때 호출되며, 인자로 받은 개수만큼 최신 게시글을 반환해야 합니다
+     * @return 스냅샷 범위 안에서 답할 수 있으면 해당 페이지, 아니면 empty
+     */
+    public Optional<List<PostFeedRow>> page(String type, OffsetDateTime cursorCreatedAt, Long cursorId, int limit,
+                                            IntFunction<List<PostFeedRow>> loader) {
+        String key = type == null ? ALL : type;
+        if (!config.isEnabled() || limit <= 0 || limit > config.getDepth()) {
+            return Optional.empty();
+        }
+        List<PostFeedRow> rows = snapshot(key, loader);
+        int start = cursorCreatedAt == null ? 0 : positionAfter(rows, cursorCreatedAt, cursorId);
+        // 스냅샷이 depth보다 짧으면 그 타입의 게시글 전부이므로 끝까지 답할 수 있습니다.
+        boolean complete = rows.size() < config.getDepth();
+        if (start + limit > rows.size() && !complete) {
+            requests(key, "miss").increment();
+            return Optional.empty();
+        }
+        requests(key, "hit").increment();
+        return Optional.of(rows.subList(Math.min(start, rows.size()), Math.min(rows.size(), start + limit)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        snapshots.clear();
+    }
+
+    private List<PostFeedRow> snapshot(String key, IntFunction<List<PostFeedRow>> loader) {
+        CompletableFuture<List<PostFeedRow>> created = new CompletableFuture<>();
+        CompletableFuture<List<PostFeedRow>> existing = snapshots.putIfAbsent(key, created);
+        if (existing == null) {
+            counters.computeIfAbsent(key + ":load",
+                    name -> Counter.builder("feed.cache.loads").tag("type", key).register(meterRegistry)).increment();
+            try {
+                created.complete(List.copyOf(loader.apply(config.getDepth())));
+            } catch (RuntimeException e) {
+                // 실패한 적재는 남기지 않아 다음 요청이 다시 시도합니다.
+                snapshots.remove(key, created);
+                created.completeExceptionally(e);
+                throw e;
+            }
+            return created.join();
+        }
+        try {
+            return existing.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    // (createdAt desc, id desc) 순서에서 커서 바로 다음 위치. 커서의 게시글이 삭제됐어도 같은 위치를 찾습니다.
+    private static int positionAfter(List<PostFeedRow> rows, OffsetDateTime cursorCreatedAt, Long cursorId) {
+        for (int i = 0; i < rows.size(); i++) {
+            PostFeedRow row = rows.get(i);
+            int compared = row.createdAt().toInstant().compareTo(cursorCreatedAt.toInstant());
+            if (compared < 0 || (compared == 0 && cursorId != null && row.id() < cursorId)) {
+                return i;
+            }
+        }
+        return rows.size();
+    }
+
+    private Counter requests(String type, String result) {
+        return counters.computeIfAbsent(type + ":" + result, name -> Counter.builder("feed.cache.requests")
+                .tag("type", type)
+                .tag("result", result)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,197 @@
+package gc.demo.service;
+
+import ai.djl.huggingface.tokenizers.Encoding;
+import ai.djl.huggingface.tokenizers.HuggingFaceTokenizer;
+import ai.onnxruntime.NodeInfo;
+import ai.onnxruntime.OnnxTensor;
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
+import ai.onnxruntime.TensorInfo;
+import gc.demo.config.EmbeddingProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * ONNX Runtime으로 문장 임베딩 모델(MiniLM 계열, 384차원)을 프로세스 안에서 실행합니다.
+ * 네트워크 호출 없이 CPU에서 수 밀리초 안에 질의 임베딩을 만들 수 있어 외부 API 없이도 서비스를 운영할 수 있습니다.
+ * 토큰 임베딩을 attention mask로 평균 낸 뒤 L2 정규화해 돌려줍니다.
+ */
+@Service
+@ConditionalOnProperty(prefix = "embedding", name = "provider", havingValue = "local")
+public class LocalEmbeddingClient implements EmbeddingProvider {
+    private static final Logger log = LoggerFactory.getLogger(LocalEmbeddingClient.class);
+    private static final String TOKEN_TYPE_IDS = "token_type_ids";
+
+    private final EmbeddingProperties.Local config;
+    private final OrtEnvironment environment;
+    private final OrtSession session;
+    private final HuggingFaceTokenizer tokenizer;
+    private final boolean needsTokenTypeIds;
+
+    public LocalEmbeddingClient(EmbeddingProperties embeddingProperties) throws OrtException, IOException {
+        this.config = embeddingProperties.getLocal();
+        Path modelPath = requireFile(config.getModelPath(), "embedding.local.model-path");
+        Path tokenizerPath = requireFile(config.getTokenizerPath(), "embedding.local.tokenizer-path");
+
+        this.environment = OrtEnvironment.getEnvironment();
+        OrtSession.SessionOptions options = new OrtSession.SessionOptions();
+        if (config.getIntraOpThreads() > 0) {
+            options.setIntraOpNumThreads(config.getIntraOpThreads());
+        }
+        this.session = environment.createSession(modelPath.toString(), options);
+        this.needsTokenTypeIds = session.getInputNames().contains(TOKEN_TYPE_IDS);
+        requireDimension(session);
+        this.tokenizer = HuggingFaceTokenizer.builder()
+                .optTokenizerPath(tokenizerPath)
+                .optMaxLength(config.getMaxTokens())
+                .optTruncation(true)
+                .optPadding(false)
+                .build();
+        log.info("Loaded local embedding model {} from {}", config.getModelName(), modelPath);
+    }
+
+    @Override
+    public String name() {
+        return "local:" + config.getModelName();
+    }
+
+    @Override
+    public Optional<float[]> embed(String input) {
+        if (!StringUtils.hasText(input)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(embedAll(List.of(input)).get(0));
+    }
+
+    @Override
+    public List<float[]> embedAll(List<String> inputs) {
+        float[][] results = new float[inputs.size()][];
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < inputs.size(); i++) {
+            if (StringUtils.hasText(inputs.get(i))) {
+                pending.add(i);
+            }
+        }
+        int batchSize = Math.max(1, config.getBatchSize());
+        for (int from = 0; from < pending.size(); from += batchSize) {
+            List<Integer> batch = pending.subList(from, Math.min(pending.size(), from + batchSize));
+            try {
+                float[][] embeddings = run(batch.stream().map(inputs::get).toList());
+                for (int i = 0; i < batch.size(); i++) {
+                    results[batch.get(i)] = embeddings[i];
+                }
+            } catch (OrtException | RuntimeException e) {
+                log.error("Local embedding inference failed for {} inputs", batch.size(), e);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private float[][] run(List<String> texts) throws OrtException {
+        Encoding[] encodings = tokenizer.batchEncode(texts);
+        int sequenceLength = 0;
+        for (Encoding encoding : encodings) {
+            sequenceLength = Math.max(sequenceLength, encoding.getIds().length);
+        }
+        // 배치 안에서 가장 긴 입력에 맞춰 0으로 채웁니다. 채운 위치는 attention mask가 0이라 평균에서 빠집니다.
+        long[][] inputIds = new long[texts.size()][sequenceLength];
+        long[][] attentionMask = new long[texts.size()][sequenceLength];
+        long[][] tokenTypeIds = new long[texts.size()][sequenceLength];
+        for (int i = 0; i < encodings.length; i++) {
+            long[] ids = encodings[i].getIds();
+            System.arraycopy(ids, 0, inputIds[i], 0, ids.length);
+            System.arraycopy(encodings[i].getAttentionMask(), 0, attentionMask[i], 0, ids.length);
+            System.arraycopy(encodings[i].getTypeIds(), 0, tokenTypeIds[i], 0, ids.length);
+        }
+
+        Map<String, OnnxTensor> tensors = new HashMap<>();
+        try {
+            tensors.put("input_ids", OnnxTensor.createTensor(environment, inputIds));
+            tensors.put("attention_mask", OnnxTensor.createTensor(environment, attentionMask));
+            if (needsTokenTypeIds) {
+                tensors.put(TOKEN_TYPE_IDS, OnnxTensor.createTensor(environment, tokenTypeIds));
+            }
+            try (OrtSession.Result result = session.run(tensors)) {
+                float[][][] hiddenStates = (float[][][]) result.get(0).getValue();
+                if (hiddenStates[0][0].length != DIMENSION) {
+                    throw new IllegalStateException("model returned " + hiddenStates[0][0].length + " dimensions");
+                }
+                float[][] embeddings = new float[texts.size()][];
+                for (int i = 0; i < embeddings.length; i++) {
+                    embeddings[i] = meanPool(hiddenStates[i], attentionMask[i]);
+                }
+                return embeddings;
+            }
+        } finally {
+            tensors.values().forEach(OnnxTensor::close);
+        }
+    }
+
+    static float[] meanPool(float[][] tokens, long[] mask) {
+        float[] pooled = new float[DIMENSION];
+        int count = 0;
+        for (int t = 0; t < tokens.length; t++) {
+            if (mask[t] == 0) {
+                continue;
+            }
+            count++;
+            for (int d = 0; d < DIMENSION; d++) {
+                pooled[d] += tokens[t][d];
+            }
+        }
+        double norm = 0;
+        for (int d = 0; d < DIMENSION; d++) {
+            pooled[d] /= Math.max(1, count);
+            norm += pooled[d] * pooled[d];
+        }
+        if (norm == 0) {
+            return null;
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int d = 0; d < DIMENSION; d++) {
+            pooled[d] *= scale;
+        }
+        return pooled;
+    }
+
+    private static Path requireFile(String location, String property) {
+        Path path = Path.of(location);
+        if (!Files.isRegularFile(path)) {
+            throw new IllegalStateException(property + " does not point to a file: " + path.toAbsolutePath());
+        }
+        return path;
+    }
+
+    // 출력 [batch, sequence, hidden]의 hidden이 post.embedding 차원과 다르면 기동을 멈춥니다.
+    private static void requireDimension(OrtSession session) throws OrtException {
+        NodeInfo output = session.getOutputInfo().values().iterator().next();
+        if (output.getInfo() instanceof TensorInfo tensor) {
+            long[] shape = tensor.getShape();
+            if (shape.length == 3 && shape[2] != DIMENSION) {
+                throw new IllegalStateException("Local embedding model output " + output.getName()
+                        + " has " + shape[2] + " dimensions (expected " + DIMENSION + ")");
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() throws OrtException {
+        tokenizer.close();
+        session.close();
+    }
+}
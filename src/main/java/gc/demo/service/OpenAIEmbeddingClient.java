@@ -1,8 +1,19 @@
 package gc.demo.service;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import gc.demo.config.OpenAIProperties;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -11,70 +22,332 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * OpenAI embeddings API 클라이언트.
+ * 모든 호출은 연결/읽기 타임아웃, 동시 호출 제한(bulkhead), 서킷 브레이커를 거칩니다. 제공자 장애로 서킷이 열리면
+ * 호출하지 않고 바로 빈 결과를 돌려주므로 검색은 전문 검색으로 대체됩니다. 아웃박스가 쓰는 {@link #embedInBackground}는
+거절을 {@link EmbeddingUnavailableException}으로 알려, 실패 횟수를 쓰지 않고 나중에 다시 시도하게 합니다.
+ */
 @Service
-public class OpenAIEmbeddingClient {
+@ConditionalOnProperty(prefix = "embedding", name = "provider", havingValue = "openai", matchIfMissing = true)
+public class OpenAIEmbeddingClient implements EmbeddingProvider {
     private static final Logger log = LoggerFactory.getLogger(OpenAIEmbeddingClient.class);
 
     private final OpenAIProperties openAIProperties;
     private final RestTemplate restTemplate;
+    private final EmbeddingCache embeddingCache;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Bulkhead backgroundBulkhead;
+    private final Counter circuitRejections;
+    private final Counter bulkheadRejections;
 
-    public OpenAIEmbeddingClient(OpenAIProperties openAIProperties, RestTemplateBuilder restTemplateBuilder) {
+    public OpenAIEmbeddingClient(OpenAIProperties openAIProperties,
+                                 RestTemplateBuilder restTemplateBuilder,
+                                 EmbeddingCache embeddingCache,
+                                 MeterRegistry meterRegistry) {
         this.openAIProperties = openAIProperties;
-        this.restTemplate = restTemplateBuilder.build();
+        this.restTemplate = restTemplateBuilder
+                .connectTimeout(Duration.ofMillis(openAIProperties.getConnectTimeoutMs()))
+                .readTimeout(Duration.ofMillis(openAIProperties.getReadTimeoutMs()))
+                .build();
+        this.embeddingCache = embeddingCache;
+        OpenAIProperties.Resilience resilience = openAIProperties.getResilience();
+        this.circuitBreaker = CircuitBreaker.of("openai-embedding", CircuitBreakerConfig.custom()
+                .slidingWindowSize(resilience.getSlidingWindowSize())
+                .minimumNumberOfCalls(resilience.getMinimumCalls())
+                .failureRateThreshold(resilience.getFailureRateThreshold())
+                .slowCallDurationThreshold(Duration.ofMillis(resilience.getSlowCallDurationMs()))
+                .slowCallRateThreshold(resilience.getSlowCallRateThreshold())
+                .waitDurationInOpenState(Duration.ofMillis(resilience.getOpenStateMs()))
+                .permittedNumberOfCallsInHalfOpenState(resilience.getHalfOpenCalls())
+                .recordException(OpenAIEmbeddingClient::isProviderFailure)
+                .build());
+        this.bulkhead = Bulkhead.of("openai-embedding", BulkheadConfig.custom()
+                .maxConcurrentCalls(resilience.getMaxConcurrentCalls())
+                .maxWaitDuration(Duration.ofMillis(resilience.getMaxWaitMs()))
+                .build());
+        this.backgroundBulkhead = Bulkhead.of("openai-embedding-background", BulkheadConfig.custom()
+                .maxConcurrentCalls(resilience.getBackgroundMaxConcurrentCalls())
+                .maxWaitDuration(Duration.ofMillis(resilience.getBackgroundMaxWaitMs()))
+                .build());
+
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            CircuitBreaker.StateTransition transition = event.getStateTransition();
+            log.warn("OpenAI embedding circuit breaker moved from {} to {}",
+                    transition.getFromState(), transition.getToState());
+            Counter.builder("embedding.circuit.transitions")
+                    .tag("from", transition.getFromState().name())
+                    .tag("to", transition.getToState().name())
+                    .register(meterRegistry)
+                    .increment();
+        });
+        // 0 = CLOSED, 1 = OPEN, 2 = HALF_OPEN
+        Gauge.builder("embedding.circuit.state", circuitBreaker, breaker -> breaker.getState().getOrder())
+                .register(meterRegistry);
+        Gauge.builder("embedding.bulkhead.available", bulkhead,
+                        limiter -> limiter.getMetrics().getAvailableConcurrentCalls())
+                .tag("pool", "search")
+                .register(meterRegistry);
+        Gauge.builder("embedding.bulkhead.available", backgroundBulkhead,
+                        limiter -> limiter.getMetrics().getAvailableConcurrentCalls())
+                .tag("pool", "background")
+                .register(meterRegistry);
+        this.circuitRejections = rejections(meterRegistry, "circuit_open");
+        this.bulkheadRejections = rejections(meterRegistry, "bulkhead_full");
+    }
+
+    @Override
+    public String name() {
+        return "openai:" + openAIProperties.getModel();
     }
 
+    @Override
     public Optional<float[]> embed(String input) {
+        try {
+            return generate(input, bulkhead);
+        } catch (EmbeddingUnavailableException e) {
+            log.debug("OpenAI embedding skipped: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Optional<float[]> embedInBackground(String input) {
+        return generate(input, backgroundBulkhead);
+    }
+
+    private Optional<float[]> generate(String input, Bulkhead limiter) {
         if (!StringUtils.hasText(input)) {
             return Optional.empty();
         }
+        Optional<float[]> cached = embeddingCache.get(name(), input);
+        if (cached.isPresent()) {
+            return cached;
+        }
         if (!StringUtils.hasText(openAIProperties.getApiKey())) {
-            log.debug("OpenAI API key not configured; skipping embedding generation");
-            return Optional.empty();
+            throw new EmbeddingUnavailableException("OpenAI API key not configured");
         }
 
-        EmbeddingRequest request = new EmbeddingRequest(openAIProperties.getModel(), input);
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(openAIProperties.getApiKey());
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        HttpEntity<EmbeddingRequest> entity = new HttpEntity<>(request, headers);
-
         try {
-            ResponseEntity<EmbeddingResponse> response = restTemplate.exchange(
-                    openAIProperties.getEndpoint(),
-                    HttpMethod.POST,
-                    entity,
-                    EmbeddingResponse.class
-            );
-            EmbeddingResponse body = response.getBody();
+            EmbeddingResponse body = request(input, limiter);
             if (body == null || body.data() == null || body.data().isEmpty()) {
                 log.warn("OpenAI embedding response did not contain data");
                 return Optional.empty();
             }
-            List<Double> values = body.data().get(0).embedding();
-            if (values == null || values.isEmpty()) {
+            float[] embedding = toFloatArray(body.data().get(0).embedding());
+            if (embedding == null) {
                 log.warn("OpenAI embedding result was empty");
                 return Optional.empty();
             }
-            float[] embedding = new float[values.size()];
-            for (int i = 0; i < values.size(); i++) {
-                embedding[i] = values.get(i).floatValue();
-            }
+            embeddingCache.put(name(), input, embedding);
             return Optional.of(embedding);
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            throw new EmbeddingUnavailableException("OpenAI embedding call rejected: " + e.getMessage(), e);
         } catch (RestClientException e) {
             log.error("Failed to generate OpenAI embedding", e);
             return Optional.empty();
         }
     }
 
-    private record EmbeddingRequest(String model, String input, String user) {
-        EmbeddingRequest(String model, String input) {
-            this(model, input, null);
+    /**
+     * 여러 입력을 embeddings 엔드포인트의 배열 input으로 묶어 요청합니다.
+     * 캐시에 없는 입력만 openai.batch-size 개수와 openai.max-batch-tokens 토큰 예산 안에서 나눠 보내고,
+     * 응답의 index로 원래 위치에 되돌려 놓습니다.
+     */
+    @Override
+    public List<float[]> embedAll(List<String> inputs) {
+        float[][] results = new float[inputs.size()][];
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < inputs.size(); i++) {
+            String input = inputs.get(i);
+            if (!StringUtils.hasText(input)) {
+                continue;
+            }
+            Optional<float[]> cached = embeddingCache.get(name(), input);
+            if (cached.isPresent()) {
+                results[i] = cached.get();
+            } else {
+                pending.add(i);
+            }
+        }
+        if (pending.isEmpty()) {
+            return Arrays.asList(results);
+        }
+        if (!StringUtils.hasText(openAIProperties.getApiKey())) {
+            log.debug("OpenAI API key not configured; skipping embedding generation");
+            return Arrays.asList(results);
+        }
+
+        int batches = 0;
+        int from = 0;
+        while (from < pending.size()) {
+            int to = nextBatchEnd(inputs, pending, from);
+            embedBatch(inputs, pending.subList(from, to), results);
+            batches++;
+            from = to;
+        }
+        log.debug("Embedded {} inputs ({} cached) in {} batch request(s)",
+                inputs.size(), inputs.size() - pending.size(), batches);
+        return Arrays.asList(results);
+    }
+
+    private int nextBatchEnd(List<String> inputs, List<Integer> pending, int from) {
+        int maxItems = Math.max(1, openAIProperties.getBatchSize());
+        long tokenBudget = openAIProperties.getMaxBatchTokens();
+        long tokens = 0;
+        int to = from;
+        while (to < pending.size() && to - from < maxItems) {
+            long estimated = estimateTokens(inputs.get(pending.get(to)));
+            // 첫 항목은 예산을 넘더라도 단독으로 보냅니다.
+            if (to > from && tokens + estimated > tokenBudget) {
+                break;
+            }
+            tokens += estimated;
+            to++;
+        }
+        return to;
+    }
+
+    private void embedBatch(List<String> inputs, List<Integer> batch, float[][] results) {
+        List<String> batchInputs = batch.stream().map(inputs::get).toList();
+        try {
+            EmbeddingResponse body = request(batchInputs, backgroundBulkhead);
+            if (body == null || body.data() == null) {
+                log.warn("OpenAI batch embedding response did not contain data");
+                return;
+            }
+            for (EmbeddingResponse.Data data : body.data()) {
+                if (data.index() < 0 || data.index() >= batch.size()) {
+                    continue;
+                }
+                float[] embedding = toFloatArray(data.embedding());
+                if (embedding != null) {
+                    int position = batch.get(data.index());
+                    results[position] = embedding;
+                    embeddingCache.put(name(), inputs.get(position), embedding);
+                }
+            }
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            // 개별 재시도도 같은 이유로 거절되므로 빈 결과로 남겨 둡니다.
+            log.debug("OpenAI batch embedding of {} inputs rejected: {}", batch.size(), e.getMessage());
+        } catch (HttpClientErrorException.BadRequest e) {
+            if (batch.size() == 1) {
+                log.error("OpenAI rejected the embedding input", e);
+                return;
+            }
+            // 입력 하나가 한도를 넘으면 배치 전체가 400으로 거절되므로, 나머지는 개별 요청으로 살립니다.
+            log.warn("OpenAI rejected a batch of {} inputs; retrying individually", batch.size(), e);
+            for (int position : batch) {
+                try {
+                    results[position] = generate(inputs.get(position), backgroundBulkhead).orElse(null);
+                } catch (EmbeddingUnavailableException rejected) {
+                    log.debug("OpenAI embedding skipped: {}", rejected.getMessage());
+                }
+            }
+        } catch (RestClientException e) {
+            // 5xx, 429, 타임아웃은 개별 요청으로 나눠도 같은 이유로 실패하고 장애 중 호출만 늘리므로 빈 결과로 남겨 둡니다.
+            log.error("Failed to generate OpenAI embeddings for a batch of {} inputs", batch.size(), e);
+        }
+    }
+
+    // 검색(embed)과 백그라운드 생성(embedInBackground, embedAll)은 서킷 브레이커는 함께 쓰되 bulkhead는 따로 씁니다.
+    private EmbeddingResponse request(Object input, Bulkhead limiter) {
+        // 자리가 없어 거절된 호출은 제공자 상태와 무관하므로 서킷 브레이커 집계에 넣지 않도록 bulkhead를 바깥에 둡니다.
+        try {
+            return limiter.executeSupplier(() -> circuitBreaker.executeSupplier(() -> exchange(input)));
+        } catch (CallNotPermittedException e) {
+            circuitRejections.increment();
+            throw e;
+        } catch (BulkheadFullException e) {
+            bulkheadRejections.increment();
+            throw e;
+        }
+    }
+
+    private EmbeddingResponse exchange(Object input) {
+        EmbeddingRequest request = new EmbeddingRequest(openAIProperties.getModel(), input, requestedDimensions());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(openAIProperties.getApiKey());
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<EmbeddingRequest> entity = new HttpEntity<>(request, headers);
+
+        ResponseEntity<EmbeddingResponse> response = restTemplate.exchange(
+                openAIProperties.getEndpoint(),
+                HttpMethod.POST,
+                entity,
+                EmbeddingResponse.class
+        );
+        return response.getBody();
+    }
+
+    // 잘못된 요청(4xx)은 제공자 장애가 아니므로 서킷을 열지 않습니다. 429(rate limit)는 과부하로 보고 집계합니다.
+    private static boolean isProviderFailure(Throwable e) {
+        return !(e instanceof HttpClientErrorException) || e instanceof HttpClientErrorException.TooManyRequests;
+    }
+
+    private static Counter rejections(MeterRegistry registry, String reason) {
+        return Counter.builder("embedding.calls.rejected")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    /**
+     * 토크나이저 없이 구한 토큰 수 상한. OpenAI 임베딩 모델의 토크나이저는 바이트 단위 BPE라 토큰 수가 UTF-8 바이트 수를
+     * 넘지 않으므로 그 바이트 수를 씁니다. 한글은 음절당 3바이트로 잡혀, 음절이 여러 토큰으로 나뉘어도 예산을 넘지 않습니다.
+     */
+    static long estimateTokens(String input) {
+        long bytes = 0;
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800 || Character.isSurrogate(c)) {
+                // 서로게이트 쌍은 두 char가 합쳐 4바이트입니다.
+                bytes += 2;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    // text-embedding-3 계열은 dimensions로 post.embedding 차원에 맞춘 벡터를 돌려줍니다. ada-002는 이 파라미터를 거절합니다.
+    private Integer requestedDimensions() {
+        return openAIProperties.getModel().startsWith("text-embedding-3") ? DIMENSION : null;
+    }
+
+    private float[] toFloatArray(List<Double> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        if (values.size() != DIMENSION) {
+            log.warn("OpenAI model {} returned {} dimensions (expected {}); discarding the embedding",
+                    openAIProperties.getModel(), values.size(), DIMENSION);
+            return null;
+        }
+        float[] embedding = new float[values.size()];
+        for (int i = 0; i < values.size(); i++) {
+            embedding[i] = values.get(i).floatValue();
+        }
+        return embedding;
+    }
+
+    // input은 단건(String) 또는 배치(List<String>)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private record EmbeddingRequest(String model, Object input, Integer dimensions, String user) {
+        EmbeddingRequest(String model, Object input, Integer dimensions) {
+            this(model, input, dimensions, null);
         }
     }
 
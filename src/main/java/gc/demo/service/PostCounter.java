@@ -0,0 +1,72 @@
+package gc.demo.service;
+
+import gc.demo.config.FeedProperties;
+import gc.demo.domain.PostChangedEvent;
+import gc.demo.domain.PostKind;
+import gc.demo.repository.PostRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 페이지 기반 목록의 전체 게시글 수. feed.listing.count-strategy에 따라 매번 세거나, 센 값을 게시글이 바뀔 때까지
+ * 재사용하거나, 플래너 추정치를 씁니다. 테이블 통계가 아직 없으면(ANALYZE 전) 추정치 대신 정확히 센 값을 재사용합니다.
+ */
+@Component
+public class PostCounter {
+    private static final String ALL = "all";
+
+    private final PostRepository postRepository;
+    private final FeedProperties.CountStrategy strategy;
+    private final Map<String, Long> cached = new ConcurrentHashMap<>();
+    // 무효화 세대. 세는 중에 게시글이 바뀌면 센 값을 남기지 않습니다.
+    private final AtomicLong generation = new AtomicLong();
+
+    public PostCounter(PostRepository postRepository, FeedProperties feedProperties) {
+        this.postRepository = postRepository;
+        this.strategy = feedProperties.getListing().getCountStrategy();
+    }
+
+    /**
+     * @param kind null이면 전체 게시글
+     */
+    public long count(PostKind kind) {
+        return switch (strategy) {
+            case EXACT -> exact(kind);
+            case CACHED -> cachedExact(kind);
+            case ESTIMATED -> {
+                long estimate = postRepository.estimateCount(kind);
+                yield estimate >= 0 ? estimate : cachedExact(kind);
+            }
+        };
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        generation.incrementAndGet();
+        cached.clear();
+    }
+
+    private long cachedExact(PostKind kind) {
+        String key = kind == null ? ALL : kind.name();
+        Long count = cached.get(key);
+        if (count != null) {
+            return count;
+        }
+        long observed = generation.get();
+        long counted = exact(kind);
+        // 먼저 넣고 세대를 다시 확인합니다. 확인과 저장 사이에 무효화가 끼어들어도 오래된 값이 남지 않습니다.
+        cached.put(key, counted);
+        if (generation.get() != observed) {
+            cached.remove(key, counted);
+        }
+        return counted;
+    }
+
+    private long exact(PostKind kind) {
+        return kind == null ? postRepository.count() : postRepository.countByKind(kind);
+    }
+}
@@ -1,5 +1,8 @@
 package gc.demo.service;
 
+import gc.demo.domain.EmbeddingStatus;
+import gc.demo.domain.PostChangedEvent;
+import gc.demo.domain.PostKind;
 import gc.demo.domain.Role;
 import gc.demo.dto.request.CommunityPostRequest;
 import gc.demo.dto.request.PostCreateRequest;
@@ -8,12 +11,16 @@ import gc.demo.dto.response.PostFeedResponse;
 import gc.demo.dto.response.PostResponse;
 import gc.demo.entity.Post;
 import gc.demo.entity.User;
+import gc.demo.repository.PostFeedRow;
+import gc.demo.repository.PostListRow;
 import gc.demo.repository.PostRepository;
 import gc.demo.repository.UserRepository;
 import gc.demo.util.Snowflake;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -27,53 +34,85 @@ public class PostService {
     private final PostRepository postRepository;
     private final UserRepository userRepository;
     private final Snowflake snowflake;
-    private final OpenAIEmbeddingClient embeddingClient;
+    private final EmbeddingOutboxService embeddingOutboxService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FeedCache feedCache;
+    private final PostCounter postCounter;
 
     public PostService(PostRepository postRepository,
                        UserRepository userRepository,
                        Snowflake snowflake,
-                       OpenAIEmbeddingClient embeddingClient) {
+                       EmbeddingOutboxService embeddingOutboxService,
+                       ApplicationEventPublisher eventPublisher,
+                       FeedCache feedCache,
+                       PostCounter postCounter) {
         this.postRepository = postRepository;
         this.userRepository = userRepository;
         this.snowflake = snowflake;
-        this.embeddingClient = embeddingClient;
+        this.embeddingOutboxService = embeddingOutboxService;
+        this.eventPublisher = eventPublisher;
+        this.feedCache = feedCache;
+        this.postCounter = postCounter;
     }
 
-    @Transactional(readOnly = true)
     public PostFeedResponse getFeed(int limit, OffsetDateTime cursorCreatedAt, Long cursorId) {
         return getFeed(limit, cursorCreatedAt, cursorId, null);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * 앞쪽 페이지는 {@link FeedCache}에서 응답합니다. 트랜잭션을 열면 캐시 hit에도 커넥션을 잡으므로
+     * 메서드 트랜잭션 없이 필요한 쿼리만 실행합니다(프로젝션이라 지연 로딩이 없습니다).
+     */
     public PostFeedResponse getFeed(int limit, OffsetDateTime cursorCreatedAt, Long cursorId, String type) {
         int safeLimit = Math.min(limit, 100);
         Pageable pageable = PageRequest.of(0, safeLimit);
+        PostKind kind = PostKind.fromType(type);
 
-        List<Post> posts = cursorCreatedAt == null
-                ? postRepository.findFeedFirst(type, pageable)
-                : postRepository.findFeedAfter(type, cursorCreatedAt, cursorId, pageable);
+        List<PostFeedRow> posts = feedCache.page(type, cursorCreatedAt, cursorId, safeLimit,
+                        depth -> findFeed(kind, null, null, PageRequest.of(0, depth)))
+                .orElseGet(() -> findFeed(kind, cursorCreatedAt, cursorId, pageable));
 
         List<PostFeedResponse.Row> rows = posts.stream()
-                .map(p -> new PostFeedResponse.Row(
-                        p.getId(),
-                        p.getSlug(),
-                        p.getTitle(),
-                        p.getAuthor() != null ? p.getAuthor().getId() : null,
-                        p.getCreatedAt()))
+                .map(p -> new PostFeedResponse.Row(p.id(), p.slug(), p.title(), p.authorId(), p.createdAt()))
                 .toList();
 
         PostFeedResponse.NextCursor nextCursor = posts.size() == safeLimit
                 ? new PostFeedResponse.NextCursor(
-                posts.get(posts.size() - 1).getCreatedAt(),
-                posts.get(posts.size() - 1).getId())
+                posts.get(posts.size() - 1).createdAt(),
+                posts.get(posts.size() - 1).id())
                 : null;
         return new PostFeedResponse(rows, nextCursor);
     }
 
+    /**
+     * 목록 행은 한 번의 쿼리로 읽고, 전체 개수는 {@link PostCounter}에서 구합니다.
+     * 첫 페이지가 size보다 적게 차거나 마지막 페이지면 개수를 따로 구하지 않습니다.
+     */
     @Transactional(readOnly = true)
     public Page<PostResponse> list(String type, int page, int size) {
         PageRequest pageable = PageRequest.of(page, Math.min(size, 100));
-        return postRepository.findByType(type, pageable).map(this::toDto);
+        if (type != null && !type.equals("admin") && !type.equals("community")) {
+            // 알 수 없는 타입은 어떤 게시글과도 맞지 않습니다.
+            return Page.empty(pageable);
+        }
+        PostKind kind = PostKind.fromType(type);
+        List<PostResponse> rows = (kind == null
+                ? postRepository.findListRows(pageable)
+                : postRepository.findListRowsByKind(kind, pageable)).stream()
+                .map(this::toDto)
+                .toList();
+        return PageableExecutionUtils.getPage(rows, pageable, () -> postCounter.count(kind));
+    }
+
+    private List<PostFeedRow> findFeed(PostKind kind, OffsetDateTime cursorCreatedAt, Long cursorId, Pageable pageable) {
+        if (cursorCreatedAt == null) {
+            return kind == null
+                    ? postRepository.findFeedFirst(pageable)
+                    : postRepository.findFeedFirstByKind(kind, pageable);
+        }
+        return kind == null
+                ? postRepository.findFeedAfter(cursorCreatedAt, cursorId, pageable)
+                : postRepository.findFeedAfterByKind(kind, cursorCreatedAt, cursorId, pageable);
     }
 
     @Transactional(readOnly = true)
@@ -89,10 +128,11 @@ public class PostService {
         post.setId(snowflake.nextId());
         post.setTitle(request.title());
         post.setContent(request.content());
-        applyEmbedding(post, request.title(), request.content(), request.embedding());
+        applyEmbedding(post, true, request.embedding());
         // Admin 게시글은 author를 설정하지 않음 (null로 유지)
         post.setSlug(generateUniqueSlug(request.title()));
         Post saved = postRepository.save(post);
+        eventPublisher.publishEvent(PostChangedEvent.saved(saved.getId()));
         return saved.getSlug();
     }
 
@@ -100,9 +140,12 @@ public class PostService {
     public void updateAdminPost(String slug, PostUpdateRequest request) {
         Post post = postRepository.findBySlug(slug)
                 .orElseThrow(() -> new NoSuchElementException("게시글을 찾을 수 없습니다"));
+        boolean changed = !Objects.equals(post.getTitle(), request.title())
+                || !Objects.equals(post.getContent(), request.content());
         post.setTitle(request.title());
         post.setContent(request.content());
-        applyEmbedding(post, request.title(), request.content(), request.embedding());
+        applyEmbedding(post, changed, request.embedding());
+        eventPublisher.publishEvent(PostChangedEvent.saved(post.getId()));
     }
 
     @Transactional
@@ -110,6 +153,7 @@ public class PostService {
         Post post = postRepository.findBySlug(slug)
                 .orElseThrow(() -> new NoSuchElementException("게시글을 찾을 수 없습니다"));
         postRepository.delete(post);
+        eventPublisher.publishEvent(PostChangedEvent.deleted(post.getId()));
     }
 
     @Transactional
@@ -121,9 +165,12 @@ public class PostService {
                 throw new SecurityException("게시글 수정 권한이 없습니다");
             }
         }
+        boolean changed = !Objects.equals(post.getTitle(), request.title())
+                || !Objects.equals(post.getContent(), request.content());
         post.setTitle(request.title());
         post.setContent(request.content());
-        applyEmbedding(post, request.title(), request.content(), request.embedding());
+        applyEmbedding(post, changed, request.embedding());
+        eventPublisher.publishEvent(PostChangedEvent.saved(post.getId()));
     }
 
     @Transactional
@@ -136,6 +183,7 @@ public class PostService {
             }
         }
         postRepository.delete(post);
+        eventPublisher.publishEvent(PostChangedEvent.deleted(post.getId()));
     }
 
     @Transactional
@@ -146,10 +194,11 @@ public class PostService {
         post.setId(snowflake.nextId());
         post.setTitle(request.title());
         post.setContent(request.content());
-        applyEmbedding(post, request.title(), request.content(), null);
+        applyEmbedding(post, true, null);
         post.setAuthor(user);
         post.setSlug(generateUniqueSlug(request.title()));
         Post saved = postRepository.save(post);
+        eventPublisher.publishEvent(PostChangedEvent.saved(saved.getId()));
         return saved.getSlug();
     }
 
@@ -157,7 +206,7 @@ public class PostService {
         String base = slugify(title);
         String candidate = base;
         int counter = 1;
-        while (postRepository.findBySlug(candidate).isPresent()) {
+        while (postRepository.existsBySlug(candidate)) {
             candidate = base + "-" + counter++;
         }
         return candidate;
@@ -170,17 +219,29 @@ public class PostService {
         return StringUtils.hasText(slug) ? slug : UUID.randomUUID().toString();
     }
 
-    private void applyEmbedding(Post post, String title, String content, float[] providedEmbedding) {
-        if (providedEmbedding != null) {
-            if (providedEmbedding.length == 384) {
-                post.setEmbedding(providedEmbedding);
-                return;
-            }
-            // 잘못된 크기의 embedding은 무시하고 서버에서 생성
+    /**
+     * 유효한 임베딩이 주어지면 그대로 저장하고, 아니면 같은 트랜잭션에 아웃박스 행을 남겨 백그라운드에서 생성합니다.
+     * 제목·내용이 바뀌지 않은 수정은 기존 임베딩을 그대로 둡니다.
+     */
+    private void applyEmbedding(Post post, boolean contentChanged, float[] providedEmbedding) {
+        if (providedEmbedding != null && providedEmbedding.length == 384) {
+            post.setEmbedding(providedEmbedding);
+            post.setEmbeddingStatus(EmbeddingStatus.READY);
+            embeddingOutboxService.cancel(post.getId());
+            return;
         }
-        // title과 content를 결합하여 embedding 생성
-        String textToEmbed = title + "\n" + content;
-        embeddingClient.embed(textToEmbed).ifPresent(post::setEmbedding);
+        // 잘못된 크기의 embedding은 무시하고 서버에서 생성
+        if (!contentChanged && post.getEmbedding() != null) {
+            return;
+        }
+        post.setEmbeddingStatus(EmbeddingStatus.PENDING);
+        embeddingOutboxService.enqueue(post.getId());
+    }
+
+    private PostResponse toDto(PostListRow row) {
+        Role authorRole = row.authorRole() != null ? row.authorRole() : Role.ADMIN;
+        return new PostResponse(row.id(), row.slug(), row.title(), row.content(),
+                row.authorId(), row.authorName(), authorRole.name(), row.createdAt(), row.version());
     }
 
     private PostResponse toDto(Post post) {
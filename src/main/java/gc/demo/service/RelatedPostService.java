@@ -0,0 +1,135 @@
+package gc.demo.service;
+
+import gc.demo.config.SearchProperties;
+import gc.demo.domain.PostChangedEvent;
+import gc.demo.dto.response.RelatedPostResponse;
+import gc.demo.repository.PostRelatedRepository;
+import gc.demo.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * 게시글별 관련 게시글(임베딩 kNN) 목록을 post_related에 미리 계산해 두고 조회 시 그대로 돌려줍니다.
+ * 게시글이 바뀌면({@link PostChangedEvent}) 그 게시글의 목록과, 그 게시글을 목록에 갖고 있거나 새 이웃이 된 게시글의
+ * 목록을 다시 계산합니다. 새 이웃 판단은 kNN이 대칭이라고 보는 근사이므로 드물게 갱신이 빠질 수 있습니다.
+ */
+@Service
+public class RelatedPostService {
+    private static final Logger log = LoggerFactory.getLogger(RelatedPostService.class);
+
+    private final PostRepository postRepository;
+    private final PostRelatedRepository relatedRepository;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final SearchProperties.Related config;
+
+    public RelatedPostService(PostRepository postRepository,
+                              PostRelatedRepository relatedRepository,
+                              @Qualifier("relatedPostsExecutor") ThreadPoolTaskExecutor executor,
+                              PlatformTransactionManager transactionManager,
+                              SearchProperties searchProperties) {
+        this.postRepository = postRepository;
+        this.relatedRepository = relatedRepository;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.config = searchProperties.getRelated();
+    }
+
+    public List<RelatedPostResponse> related(String slug, int limit) {
+        int safeLimit = Math.max(1, Math.min(limit, config.getSize()));
+        List<RelatedPostResponse> related = postRepository.findRelatedHits(slug, safeLimit).stream()
+                .map(hit -> new RelatedPostResponse(hit.slug(), hit.title(), hit.snippet(), hit.createdAt(),
+                        hit.similarity()))
+                .toList();
+        // 목록이 비었을 때만 게시글 존재 여부를 따로 확인합니다.
+        if (related.isEmpty() && !postRepository.existsBySlug(slug)) {
+            throw new NoSuchElementException("게시글을 찾을 수 없습니다");
+        }
+        return related;
+    }
+
+    /**
+     * 배포 전부터 있던 게시글처럼 임베딩은 있지만 목록이 없는 게시글을 채웁니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        submit(() -> {
+            List<Long> missing = relatedRepository.findPostIdsWithoutRelated();
+            missing.forEach(this::refresh);
+            if (!missing.isEmpty()) {
+                log.info("Computed related posts for {} posts", missing.size());
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        List<Long> postIds = event.postIds();
+        if (event.type() == PostChangedEvent.Type.DELETED) {
+            submit(() -> refreshDeleted(postIds));
+        } else {
+            submit(() -> refreshChanged(postIds));
+        }
+    }
+
+    private void refreshChanged(List<Long> postIds) {
+        Set<Long> affected = new LinkedHashSet<>();
+        for (Long postId : postIds) {
+            // 예전 임베딩 기준으로 이 게시글을 이웃으로 갖던 목록과, 새 임베딩 기준으로 가까워진 게시글의 목록
+            affected.addAll(relatedRepository.findPostIdsReferencing(postId));
+            affected.addAll(refresh(postId));
+        }
+        postIds.forEach(affected::remove);
+        affected.forEach(this::refresh);
+    }
+
+    private void refreshDeleted(List<Long> postIds) {
+        Set<Long> affected = new LinkedHashSet<>();
+        for (Long postId : postIds) {
+            affected.addAll(relatedRepository.findPostIdsReferencing(postId));
+            transactionTemplate.executeWithoutResult(status -> relatedRepository.deleteByPostId(postId));
+        }
+        postIds.forEach(affected::remove);
+        affected.forEach(this::refresh);
+    }
+
+    /**
+     * @return 새로 저장한 관련 게시글 id
+     */
+    private List<Long> refresh(Long postId) {
+        return transactionTemplate.execute(status -> {
+            relatedRepository.deleteByPostId(postId);
+            relatedRepository.insertNearestNeighbours(postId, config.getSize());
+            return relatedRepository.findRelatedPostIds(postId);
+        });
+    }
+
+    private void submit(Runnable task) {
+        executor.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.warn("Failed to refresh related posts", e);
+            }
+        });
+    }
+}
@@ -0,0 +1,126 @@
+package gc.demo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import gc.demo.config.SearchProperties;
+import gc.demo.domain.PostChangedEvent;
+import gc.demo.dto.response.SearchResponse;
+import gc.demo.search.SearchCursor;
+import gc.demo.search.SearchMode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * 검색 요청용 캐시. 정규화한 질의어의 임베딩은 비교적 오래(TTL) 두고, top-k 결과는 짧게 두되
+ * 게시글이 바뀌면({@link PostChangedEvent}) 모두 버립니다. hit/miss는 {@code search.cache.requests} 메트릭으로 노출됩니다.
+ */
+@Component
+public class SearchCache {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final SearchProperties.Cache config;
+    private final Cache<String, float[]> queryEmbeddings;
+    private final Cache<ResultKey, SearchResponse> results;
+    // 무효화 세대. 결과 계산 중에 무효화가 일어나면 계산이 끝난 결과를 남기지 않습니다.
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter embeddingHits;
+    private final Counter embeddingMisses;
+    private final Counter resultHits;
+    private final Counter resultMisses;
+
+    public SearchCache(SearchProperties searchProperties, MeterRegistry meterRegistry) {
+        this.config = searchProperties.getCache();
+        this.queryEmbeddings = Caffeine.newBuilder()
+                .maximumSize(config.getQueryEmbeddingMaxSize())
+                .expireAfterWrite(Duration.ofMillis(config.getQueryEmbeddingTtlMs()))
+                .build();
+        this.results = Caffeine.newBuilder()
+                .maximumSize(config.getResultMaxSize())
+                .expireAfterWrite(Duration.ofMillis(config.getResultTtlMs()))
+                .build();
+        this.embeddingHits = counter(meterRegistry, "embedding", "hit");
+        this.embeddingMisses = counter(meterRegistry, "embedding", "miss");
+        this.resultHits = counter(meterRegistry, "result", "hit");
+        this.resultMisses = counter(meterRegistry, "result", "miss");
+    }
+
+    /**
+     * 앞뒤 공백 제거, 연속 공백 축약, 유니코드 NFC 정규화, 소문자화. 한글은 NFD로 들어오는 경우가 있어 NFC로 맞춥니다.
+     */
+    public static String normalize(String q) {
+        if (q == null) {
+            return "";
+        }
+        String composed = Normalizer.normalize(q.strip(), Normalizer.Form.NFC);
+        return WHITESPACE.matcher(composed).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param normalizedQuery {@link #normalize}를 거친 질의어
+     */
+    public Optional<float[]> queryEmbedding(String normalizedQuery, Supplier<Optional<float[]>> loader) {
+        if (!config.isEnabled()) {
+            return loader.get();
+        }
+        float[] cached = queryEmbeddings.getIfPresent(normalizedQuery);
+        if (cached != null) {
+            embeddingHits.increment();
+            return Optional.of(cached);
+        }
+        embeddingMisses.increment();
+        // 생성 실패는 캐시하지 않아 다음 요청에서 다시 시도합니다.
+        Optional<float[]> loaded = loader.get();
+        loaded.ifPresent(embedding -> queryEmbeddings.put(normalizedQuery, embedding));
+        return loaded;
+    }
+
+    public SearchResponse results(ResultKey key, Supplier<SearchResponse> loader) {
+        if (!config.isEnabled()) {
+            return loader.get();
+        }
+        SearchResponse cached = results.getIfPresent(key);
+        if (cached != null) {
+            resultHits.increment();
+            return cached.timings() == null ? cached : new SearchResponse(cached.results(), cached.fallback(),
+                    cached.source(), List.of(new SearchResponse.Timing("cache", 0, "hit", cached.results().size())));
+        }
+        resultMisses.increment();
+        long observed = generation.get();
+        SearchResponse loaded = loader.get();
+        // 먼저 넣고 세대를 다시 확인합니다. 확인과 저장 사이에 무효화가 끼어들어도 오래된 결과가 TTL까지 남지 않습니다.
+        results.put(key, loaded);
+        if (generation.get() != observed) {
+            results.asMap().remove(key, loaded);
+        }
+        return loaded;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        generation.incrementAndGet();
+        results.invalidateAll();
+    }
+
+    private static Counter counter(MeterRegistry registry, String cache, String result) {
+        return Counter.builder("search.cache.requests")
+                .tag("cache", cache)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * @param q 정규화된 질의어
+     */
+    public record ResultKey(String q, int limit, Integer recall, SearchMode mode, SearchCursor cursor) {}
+}
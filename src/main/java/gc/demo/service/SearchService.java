@@ -1,102 +1,305 @@
 package gc.demo.service;
 
+import gc.demo.config.SearchProperties;
 import gc.demo.dto.response.SearchResponse;
-import gc.demo.entity.Post;
 import gc.demo.repository.PostRepository;
+import gc.demo.repository.PostSearchHit;
+import gc.demo.repository.QuantizedCandidate;
+import gc.demo.repository.QueryBudget;
+import gc.demo.search.RankFusion;
+import gc.demo.search.SearchCursor;
+import gc.demo.search.SearchMode;
+import gc.demo.search.SearchQuery;
+import gc.demo.search.VectorMath;
+import gc.demo.search.VectorSearchEngine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Service
 public class SearchService {
-    private static final int MAX_LIMIT = 50;
     private static final Logger log = LoggerFactory.getLogger(SearchService.class);
 
     private final PostRepository postRepository;
-    private final OpenAIEmbeddingClient embeddingClient;
+    private final EmbeddingProvider embeddingProvider;
+    private final VectorSearchEngine vectorSearchEngine;
+    private final ThreadPoolTaskExecutor searchExecutor;
+    private final SearchProperties.Hybrid hybridConfig;
+    private final SearchProperties.VectorIndex vectorIndexConfig;
+    private final boolean quantizedFirstStage;
+    private final SearchCache searchCache;
 
-    public SearchService(PostRepository postRepository, OpenAIEmbeddingClient embeddingClient) {
+    public SearchService(PostRepository postRepository,
+                         EmbeddingProvider embeddingProvider,
+                         VectorSearchEngine vectorSearchEngine,
+                         @Qualifier("searchExecutor") ThreadPoolTaskExecutor searchExecutor,
+                         SearchProperties searchProperties,
+                         SearchCache searchCache) {
         this.postRepository = postRepository;
-        this.embeddingClient = embeddingClient;
+        this.embeddingProvider = embeddingProvider;
+        this.vectorSearchEngine = vectorSearchEngine;
+        this.searchExecutor = searchExecutor;
+        this.hybridConfig = searchProperties.getHybrid();
+        this.vectorIndexConfig = searchProperties.getVectorIndex();
+        // JVM 내부 HNSW 엔진은 float32 원본을 메모리에 두므로 DB 양자화 인덱스를 쓰지 않습니다.
+        this.quantizedFirstStage = searchProperties.getEngine() == SearchProperties.Engine.PGVECTOR
+                && vectorIndexConfig.getQuantization() != SearchProperties.Quantization.NONE;
+        this.searchCache = searchCache;
     }
 
     public SearchResponse search(String q, int limit) {
-        return search(q, limit, null);
+        return search(SearchQuery.of(q, limit));
     }
 
-    public SearchResponse search(String q, int limit, List<Double> embeddingPayload) {
-        int safeLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
-        Pageable pageable = PageRequest.of(0, safeLimit);
-        float[] providedEmbedding = toFloatArray(embeddingPayload);
-        Optional<float[]> queryEmbedding = Optional.ofNullable(providedEmbedding)
-                .filter(vector -> vector.length > 0);
+    /**
+     * 질의어를 정규화한 뒤 결과 캐시를 거쳐 검색합니다. 클라이언트가 임베딩을 직접 보낸 요청은 캐시하지 않습니다.
+     */
+    public SearchResponse search(SearchQuery query) {
+        SearchQuery normalized = new SearchQuery(SearchCache.normalize(query.q()), query.limit(),
+                query.embedding(), query.recall(), query.mode(), query.cursor());
+        if (normalized.embedding() != null && !normalized.embedding().isEmpty()) {
+            return execute(normalized);
+        }
+        SearchCache.ResultKey key = new SearchCache.ResultKey(
+                normalized.q(), normalized.limit(), normalized.recall(), normalized.mode(), normalized.cursor());
+        return searchCache.results(key, () -> execute(normalized));
+    }
 
-        if (queryEmbedding.isEmpty()) {
-            queryEmbedding = embeddingClient.embed(q);
+    /**
+     * AUTO 모드는 벡터 검색 → 전문 검색(lexical) → 트라이그램(fuzzy) 순으로 결과가 나올 때까지 내려가며,
+     * HYBRID는 {@link #searchHybrid}, 나머지 모드는 해당 방식만 실행합니다.
+     * 커서가 있으면 모드와 관계없이 커서를 만든 방식으로 다음 페이지만 찾습니다.
+     */
+    private SearchResponse execute(SearchQuery query) {
+        Pageable pageable = PageRequest.of(0, query.limit());
+        SearchMode mode = query.effectiveMode();
+        boolean fallback = query.mode() == SearchMode.AUTO;
+        if (mode == SearchMode.HYBRID) {
+            return searchHybrid(query);
+        }
+
+        if (mode == SearchMode.AUTO || mode == SearchMode.VECTOR) {
+            List<PostSearchHit> hits = searchVector(query, pageable, query.cursor());
+            if (!hits.isEmpty() || mode == SearchMode.VECTOR) {
+                log.debug("query={} limit={} recall={} engine={} results={} source=embeddings fallback=false cursor={}",
+                        query.q(), query.limit(), query.recall(), vectorSearchEngine.name(), hits.size(),
+                        query.cursor() != null);
+                return response(hits, false, "embeddings", query.limit());
+            }
         }
 
-        if (queryEmbedding.isPresent()) {
-            float[] embeddingForSearch = queryEmbedding.get();
-            List<Post> posts = postRepository.searchByEmbedding(embeddingForSearch, pageable);
-            if (!posts.isEmpty()) {
-                log.debug("query={} limit={} embedding=true results={} source=embeddings fallback=false",
-                        q, safeLimit, posts.size());
-                return new SearchResponse(convertToResults(posts, embeddingForSearch), false, "embeddings");
+        if (mode == SearchMode.AUTO || mode == SearchMode.LEXICAL) {
+            Long afterId = query.cursor() == null ? null : query.cursor().id();
+            List<PostSearchHit> hits = postRepository.searchLexical(query.q(), pageable, afterId);
+            if (!hits.isEmpty() || mode == SearchMode.LEXICAL) {
+                log.debug("query={} limit={} results={} source=lexical fallback={} cursor={}",
+                        query.q(), query.limit(), hits.size(), fallback, afterId != null);
+                return response(hits, fallback, "lexical", query.limit());
             }
-            log.debug("query={} limit={} embedding=true but no hits -> falling back to lexical", q, safeLimit);
         }
 
-        List<Post> posts = postRepository.searchLexical(q, pageable);
-        log.debug("query={} limit={} embedding=false results={} source=lexical fallback=true", q, safeLimit, posts.size());
-        return new SearchResponse(convertToResults(posts, null), true, "lexical");
+        // 전문 검색은 정확한 토큰이 필요하므로, 오타 등으로 일치가 없을 때 외부 호출 없이 트라이그램으로 찾습니다.
+        List<PostSearchHit> hits = postRepository.searchFuzzy(query.q(), pageable);
+        log.debug("query={} limit={} results={} source=fuzzy fallback={}",
+                query.q(), query.limit(), hits.size(), fallback);
+        return response(hits, fallback, "fuzzy", query.limit());
     }
 
-    private List<SearchResponse.Result> convertToResults(List<Post> posts, float[] queryEmbedding) {
-        return posts.stream()
-                .map(post -> toResult(post, queryEmbedding))
-                .toList();
+    /**
+     * 벡터(임베딩 생성 포함)와 전문 검색을 searchExecutor에서 동시에 실행하고 RRF로 합칩니다.
+     * 두 단계는 하나의 시간 예산을 공유하며, 예산 안에 끝나지 않거나 실패한 단계는 빈 결과로 취급합니다.
+     * 같은 마감을 {@link QueryBudget}으로 각 단계의 쿼리에 걸어, 예산을 넘긴 쿼리는 DB에서도 취소됩니다.
+     */
+    private SearchResponse searchHybrid(SearchQuery query) {
+        Pageable candidates = PageRequest.of(0, Math.max(query.limit(), hybridConfig.getDepth()));
+        long started = System.nanoTime();
+        long deadline = started + TimeUnit.MILLISECONDS.toNanos(hybridConfig.getBudgetMs());
+
+        CompletableFuture<TimedHits> vector = submit(() -> searchVector(query, candidates, null), deadline);
+        CompletableFuture<TimedHits> lexical = submit(() -> postRepository.searchLexical(query.q(), candidates),
+                deadline);
+
+        List<SearchResponse.Timing> timings = new ArrayList<>();
+        List<PostSearchHit> vectorHits = await("vector", vector, started, deadline, timings);
+        List<PostSearchHit> lexicalHits = await("lexical", lexical, started, deadline, timings);
+        // 유사도를 보여줄 수 있도록 벡터 결과를 앞에 둡니다.
+        List<PostSearchHit> fused = RankFusion.reciprocalRank(
+                List.of(vectorHits, lexicalHits), hybridConfig.getRrfK(), query.limit());
+        timings.add(new SearchResponse.Timing("total", elapsedMs(started), "ok", fused.size()));
+
+        log.debug("query={} limit={} vector={} lexical={} results={} source=hybrid timings={}",
+                query.q(), query.limit(), vectorHits.size(), lexicalHits.size(), fused.size(), timings);
+        return new SearchResponse(fused.stream().map(this::toResult).toList(), false, "hybrid", timings);
     }
 
-    private SearchResponse.Result toResult(Post post, float[] queryEmbedding) {
-        Double similarity = calculateSimilarity(queryEmbedding, post.getEmbedding());
-        String description = snippet(post.getContent());
-        return new SearchResponse.Result(
-                post.getSlug(),
-                post.getTitle(),
-                description,
-                post.getCreatedAt(),
-                similarity
-        );
+    /**
+     * 전문 검색과 벡터 검색을 동시에 시작해 끝나는 대로 각각의 결과를 onPartial로 넘깁니다.
+     * 보통 전문 검색이 먼저 끝나므로 임베딩 생성을 기다리지 않고 첫 결과를 보여줄 수 있습니다.
+     * 두 단계는 hybrid와 같은 시간 예산을 쓰며, 예산을 넘기거나 실패한 단계는 결과 없이 timing에만 남습니다.
+     * 예산을 넘긴 단계의 쿼리는 {@link QueryBudget}의 statement_timeout으로 DB에서도 취소됩니다.
+     * onPartial은 searchExecutor 스레드에서 동시에 호출될 수 있습니다.
+     *
+     * @return 두 단계가 모두 끝나면 단계별 소요 시간으로 완료되는 future
+     */
+    public CompletableFuture<List<SearchResponse.Timing>> stream(SearchQuery query, Consumer<SearchResponse> onPartial) {
+        SearchQuery normalized = new SearchQuery(SearchCache.normalize(query.q()), query.limit(),
+                query.embedding(), query.recall(), SearchMode.AUTO, null);
+        Pageable pageable = PageRequest.of(0, normalized.limit());
+        long started = System.nanoTime();
+        long deadline = started + TimeUnit.MILLISECONDS.toNanos(hybridConfig.getBudgetMs());
+
+        CompletableFuture<SearchResponse.Timing> lexical = streamLeg("lexical", "lexical", started, deadline, normalized,
+                () -> postRepository.searchLexical(normalized.q(), pageable), onPartial);
+        CompletableFuture<SearchResponse.Timing> vector = streamLeg("vector", "embeddings", started, deadline, normalized,
+                () -> searchVector(normalized, pageable, null), onPartial);
+        return lexical.thenCombine(vector, (lexicalTiming, vectorTiming) -> {
+            List<SearchResponse.Timing> timings = List.of(lexicalTiming, vectorTiming,
+                    new SearchResponse.Timing("total", elapsedMs(started), "ok",
+                            lexicalTiming.hits() + vectorTiming.hits()));
+            log.debug("query={} limit={} source=stream timings={}", normalized.q(), normalized.limit(), timings);
+            return timings;
+        });
+    }
+
+    private CompletableFuture<SearchResponse.Timing> streamLeg(String leg, String source, long started, long deadline,
+                                                              SearchQuery query, Supplier<List<PostSearchHit>> search,
+                                                              Consumer<SearchResponse> onPartial) {
+        return submit(search, deadline)
+                .orTimeout(hybridConfig.getBudgetMs(), TimeUnit.MILLISECONDS)
+                .handle((result, error) -> {
+                    if (error == null) {
+                        onPartial.accept(response(result.hits(), false, source, query.limit()));
+                        return new SearchResponse.Timing(leg, result.tookMs(), "ok", result.hits().size());
+                    }
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    if (cause instanceof TimeoutException) {
+                        log.warn("Streaming search leg {} exceeded the {} ms budget", leg, hybridConfig.getBudgetMs());
+                        return new SearchResponse.Timing(leg, elapsedMs(started), "timeout", 0);
+                    }
+                    log.warn("Streaming search leg {} failed", leg, cause);
+                    return new SearchResponse.Timing(leg, elapsedMs(started), "failed", 0);
+                });
     }
 
-    private String snippet(String content) {
-        if (content == null || content.isEmpty()) {
-            return "";
+    private CompletableFuture<TimedHits> submit(Supplier<List<PostSearchHit>> leg, long deadline) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long started = System.nanoTime();
+                List<PostSearchHit> hits = QueryBudget.within(deadline, leg);
+                return new TimedHits(hits, elapsedMs(started));
+            }, searchExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
         }
-        return content.substring(0, Math.min(160, content.length()));
     }
 
-    private Double calculateSimilarity(float[] queryEmbedding, float[] targetEmbedding) {
-        if (queryEmbedding == null || targetEmbedding == null || queryEmbedding.length != targetEmbedding.length) {
-            return null;
+    private List<PostSearchHit> await(String leg, CompletableFuture<TimedHits> future, long started, long deadline,
+                                      List<SearchResponse.Timing> timings) {
+        try {
+            TimedHits result = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            timings.add(new SearchResponse.Timing(leg, result.tookMs(), "ok", result.hits().size()));
+            return result.hits();
+        } catch (TimeoutException e) {
+            // 실행 중인 쿼리는 cancel로 멈추지 않고 statement_timeout으로 곧 취소됩니다.
+            future.cancel(true);
+            log.warn("Hybrid search leg {} exceeded the {} ms budget", leg, hybridConfig.getBudgetMs());
+            timings.add(new SearchResponse.Timing(leg, elapsedMs(started), "timeout", 0));
+        } catch (ExecutionException e) {
+            log.warn("Hybrid search leg {} failed", leg, e.getCause());
+            timings.add(new SearchResponse.Timing(leg, elapsedMs(started), "failed", 0));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            timings.add(new SearchResponse.Timing(leg, elapsedMs(started), "failed", 0));
+        }
+        return List.of();
+    }
+
+    private static long elapsedMs(long startedNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+    }
+
+    private List<PostSearchHit> searchVector(SearchQuery query, Pageable pageable, SearchCursor after) {
+        Optional<float[]> queryEmbedding = Optional.ofNullable(toFloatArray(query.embedding()))
+                .filter(vector -> vector.length > 0);
+        if (queryEmbedding.isEmpty()) {
+            queryEmbedding = searchCache.queryEmbedding(query.q(), () -> embeddingProvider.embed(query.q()));
+        }
+        if (queryEmbedding.isEmpty()) {
+            log.debug("query={} has no embedding; skipping vector search", query.q());
+            return List.of();
         }
-        double dot = 0;
-        double normA = 0;
-        double normB = 0;
-        for (int i = 0; i < queryEmbedding.length; i++) {
-            dot += queryEmbedding[i] * targetEmbedding[i];
-            normA += queryEmbedding[i] * queryEmbedding[i];
-            normB += targetEmbedding[i] * targetEmbedding[i];
+        if (quantizedFirstStage) {
+            return searchQuantized(queryEmbedding.get(), pageable, query.recall(), after);
         }
-        if (normA == 0 || normB == 0) {
-            return null;
+        return vectorSearchEngine.search(queryEmbedding.get(), pageable, query.recall(), after);
+    }
+
+    /**
+     * 양자화 인덱스로 limit × rerankFactor개의 후보를 뽑고, float32 원본과의 코사인 유사도로 다시 정렬해 상위 limit개를 고릅니다.
+     * 다음 페이지는 커서의 유사도를 여기서 계산한 값과 비교하므로 이전 페이지와 경계가 정확히 맞습니다.
+     */
+    private List<PostSearchHit> searchQuantized(float[] embedding, Pageable pageable, Integer recall, SearchCursor after) {
+        int candidates = pageable.getPageSize() * Math.max(1, vectorIndexConfig.getRerankFactor());
+        List<QuantizedCandidate> firstStage = postRepository.findQuantizedCandidates(
+                embedding, candidates, recall, after == null ? null : after.similarity());
+        List<PostSearchHit> reranked = firstStage.stream()
+                .map(candidate -> candidate.hit().withSimilarity(
+                        VectorMath.cosineSimilarity(embedding, candidate.embedding())))
+                .filter(hit -> after == null || isAfter(hit, after))
+                .sorted(Comparator.comparing(PostSearchHit::similarity).reversed().thenComparing(PostSearchHit::id))
+                .limit(pageable.getPageSize())
+                .toList();
+        log.debug("quantization={} candidates={} reranked={}",
+                vectorIndexConfig.getQuantization(), firstStage.size(), reranked.size());
+        return reranked;
+    }
+
+    private static boolean isAfter(PostSearchHit hit, SearchCursor after) {
+        int compared = Double.compare(hit.similarity(), after.similarity());
+        return compared < 0 || (compared == 0 && hit.id() > after.id());
+    }
+
+    /**
+     * 결과가 limit개 꽉 찼으면 마지막 결과 위치를 nextCursor로 돌려줍니다. 커서는 embeddings와 lexical 결과에만 만듭니다.
+     */
+    private SearchResponse response(List<PostSearchHit> hits, boolean fallback, String source, int limit) {
+        String nextCursor = null;
+        if (!hits.isEmpty() && hits.size() >= limit) {
+            PostSearchHit last = hits.get(hits.size() - 1);
+            if ("embeddings".equals(source) && last.similarity() != null) {
+                nextCursor = SearchCursor.vector(last.similarity(), last.id()).encode();
+            } else if ("lexical".equals(source)) {
+                nextCursor = SearchCursor.lexical(last.id()).encode();
+            }
         }
-        return dot / (Math.sqrt(normA) * Math.sqrt(normB));
+        return new SearchResponse(hits.stream().map(this::toResult).toList(), fallback, source, null, nextCursor);
+    }
+
+    private SearchResponse.Result toResult(PostSearchHit hit) {
+        return new SearchResponse.Result(
+                hit.slug(),
+                hit.title(),
+                hit.snippet(),
+                hit.createdAt(),
+                hit.similarity()
+        );
     }
 
     private float[] toFloatArray(List<Double> embeddingPayload) {
@@ -110,4 +313,6 @@ public class SearchService {
         }
         return embedding;
     }
+
+    private record TimedHits(List<PostSearchHit> hits, long tookMs) {}
 }
@@ -0,0 +1,84 @@
+package gc.demo.service;
+
+import gc.demo.config.SearchProperties;
+import gc.demo.domain.PostChangedEvent;
+import gc.demo.dto.response.SuggestionResponse;
+import gc.demo.repository.PostRepository;
+import gc.demo.repository.PostTitle;
+import gc.demo.search.TitlePrefixIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 검색창 자동완성. 키 입력마다 호출되므로 DB나 임베딩 API를 거치지 않고 메모리의 {@link TitlePrefixIndex}에서만 답합니다.
+ * 기동 시 전체 제목을 읽어 인덱스를 만들고, 이후에는 {@link PostChangedEvent}로 바뀐 게시글만 반영합니다.
+ */
+@Service
+public class SuggestService {
+    private static final Logger log = LoggerFactory.getLogger(SuggestService.class);
+
+    private final PostRepository postRepository;
+    private final SearchProperties.Suggest config;
+    private final TitlePrefixIndex index = new TitlePrefixIndex();
+    // 초기 적재 도중 바뀐 id. 적재 스냅샷이 오래된 제목을 담았을 수 있어 적재 후 다시 읽습니다.
+    private final Set<Long> touchedDuringLoad = ConcurrentHashMap.newKeySet();
+    private volatile boolean loading = true;
+
+    public SuggestService(PostRepository postRepository, SearchProperties searchProperties) {
+        this.postRepository = postRepository;
+        this.config = searchProperties.getSuggest();
+    }
+
+    public List<SuggestionResponse> suggest(String q, int limit) {
+        int safeLimit = Math.max(1, Math.min(limit, config.getMaxLimit()));
+        return index.suggest(q, safeLimit).stream()
+                .map(post -> new SuggestionResponse(post.slug(), post.title()))
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        long started = System.nanoTime();
+        index.replaceAll(postRepository.findAllTitles());
+        loading = false;
+        List<Long> touched = new ArrayList<>(touchedDuringLoad);
+        touchedDuringLoad.clear();
+        if (!touched.isEmpty()) {
+            refresh(touched);
+        }
+        log.info("Suggest index loaded: {} posts in {} ms", index.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        if (loading) {
+            touchedDuringLoad.addAll(event.postIds());
+        }
+        if (event.type() == PostChangedEvent.Type.DELETED) {
+            index.update(event.postIds(), List.of());
+            return;
+        }
+        refresh(event.postIds());
+    }
+
+    // 다시 읽었을 때 없는 id는 그 사이 삭제된 게시글이므로 인덱스에서 뺍니다.
+    private void refresh(List<Long> postIds) {
+        List<PostTitle> titles = postRepository.findTitlesByIds(postIds);
+        index.update(postIds, titles);
+    }
+}
@@ -1,5 +1,7 @@
 package gc.demo.service;
 
+import gc.demo.domain.EmbeddingStatus;
+import gc.demo.domain.PostChangedEvent;
 import gc.demo.dto.request.SyncPostsRequest;
 import gc.demo.dto.response.SyncResult;
 import gc.demo.entity.Post;
@@ -8,10 +10,14 @@ import gc.demo.repository.PostRepository;
 import gc.demo.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Set;
 
@@ -22,23 +28,42 @@ public class SyncService {
 
     private final PostRepository postRepository;
     private final UserRepository userRepository;
-    private final OpenAIEmbeddingClient embeddingClient;
+    private final EmbeddingProvider embeddingProvider;
+    private final EmbeddingOutboxService embeddingOutboxService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     public SyncService(PostRepository postRepository,
                        UserRepository userRepository,
-                       OpenAIEmbeddingClient embeddingClient) {
+                       EmbeddingProvider embeddingProvider,
+                       EmbeddingOutboxService embeddingOutboxService,
+                       ApplicationEventPublisher eventPublisher,
+                       PlatformTransactionManager transactionManager) {
         this.postRepository = postRepository;
         this.userRepository = userRepository;
-        this.embeddingClient = embeddingClient;
+        this.embeddingProvider = embeddingProvider;
+        this.embeddingOutboxService = embeddingOutboxService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
-    @Transactional
+    /**
+     * 누락된 임베딩을 먼저 배치로 생성한 뒤 DB 트랜잭션을 엽니다.
+     * 외부 API 호출 동안 커넥션을 붙잡지 않고, 게시글 수만큼의 직렬 요청도 몇 번의 배치 요청으로 줄어듭니다.
+     */
     public SyncResult sync(SyncPostsRequest request) {
+        List<float[]> embeddings = resolveEmbeddings(request.posts());
+        return transactionTemplate.execute(status -> persist(request, embeddings));
+    }
+
+    private SyncResult persist(SyncPostsRequest request, List<float[]> embeddings) {
         int inserted = 0;
         int updated = 0;
         Set<String> incomingSlugs = new HashSet<>();
+        List<Long> savedIds = new ArrayList<>();
 
-        for (var item : request.posts()) {
+        for (int i = 0; i < request.posts().size(); i++) {
+            var item = request.posts().get(i);
             incomingSlugs.add(item.slug());
             Post post = postRepository.findBySlug(item.slug()).orElse(null);
             User author = null;
@@ -56,24 +81,54 @@ public class SyncService {
             }
             post.setTitle(item.title());
             post.setContent(item.content());
-            applyEmbedding(post, item.content(), item.embedding());
+            if (embeddings.get(i) != null) {
+                post.setEmbedding(embeddings.get(i));
+                post.setEmbeddingStatus(EmbeddingStatus.READY);
+                embeddingOutboxService.cancel(post.getId());
+            } else {
+                // 배치 생성에 실패한 게시글은 아웃박스 워커가 재시도합니다.
+                post.setEmbeddingStatus(EmbeddingStatus.PENDING);
+                embeddingOutboxService.enqueue(post.getId());
+            }
             post.setAuthor(author);
             postRepository.save(post);
+            savedIds.add(post.getId());
+        }
+        if (!savedIds.isEmpty()) {
+            eventPublisher.publishEvent(PostChangedEvent.saved(savedIds));
         }
 
         // optional: delete posts not present; skipped to avoid destructive behavior
         return new SyncResult(request.posts().size(), inserted, updated, 0);
     }
 
-    private void applyEmbedding(Post post, String content, float[] providedEmbedding) {
-        if (providedEmbedding != null) {
-            if (providedEmbedding.length == EMBEDDING_DIMENSION) {
-                post.setEmbedding(providedEmbedding);
-                return;
+    private List<float[]> resolveEmbeddings(List<SyncPostsRequest.Item> items) {
+        List<float[]> embeddings = new ArrayList<>(items.size());
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            float[] provided = items.get(i).embedding();
+            if (provided != null && provided.length == EMBEDDING_DIMENSION) {
+                embeddings.add(provided);
+                continue;
             }
-            log.warn("Received embedding with length {} (expected {}); falling back to server-side generation",
-                    providedEmbedding.length, EMBEDDING_DIMENSION);
+            if (provided != null) {
+                log.warn("Received embedding with length {} (expected {}); falling back to server-side generation",
+                        provided.length, EMBEDDING_DIMENSION);
+            }
+            embeddings.add(null);
+            missing.add(i);
+        }
+        if (missing.isEmpty()) {
+            return embeddings;
+        }
+
+        List<String> contents = missing.stream()
+                .map(i -> items.get(i).content())
+                .toList();
+        List<float[]> generated = embeddingProvider.embedAll(contents);
+        for (int j = 0; j < missing.size(); j++) {
+            embeddings.set(missing.get(j), generated.get(j));
         }
-        embeddingClient.embed(content).ifPresent(post::setEmbedding);
+        return embeddings;
     }
 }
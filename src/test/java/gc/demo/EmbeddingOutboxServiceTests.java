@@ -0,0 +1,135 @@
+package gc.demo;
+
+import gc.demo.domain.EmbeddingStatus;
+import gc.demo.entity.EmbeddingOutbox;
+import gc.demo.entity.Post;
+import gc.demo.repository.EmbeddingOutboxRepository;
+import gc.demo.repository.PostRepository;
+import gc.demo.service.EmbeddingOutboxService;
+import gc.demo.service.EmbeddingProvider;
+import gc.demo.service.EmbeddingUnavailableException;
+import gc.demo.util.Snowflake;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+// 스케줄러가 테스트 도중 폴링하지 않도록 간격을 길게 둡니다.
+@SpringBootTest(properties = "embedding.outbox.poll-interval-ms=3600000")
+class EmbeddingOutboxServiceTests {
+    @Autowired
+    private EmbeddingOutboxService outboxService;
+    @Autowired
+    private EmbeddingOutboxRepository outboxRepository;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private Snowflake snowflake;
+    @MockitoBean
+    private EmbeddingProvider embeddingProvider;
+
+    private Long postId;
+
+    @AfterEach
+    void cleanUp() {
+        if (postId != null) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                outboxRepository.findByPostIdForUpdate(postId).ifPresent(outboxRepository::delete);
+                postRepository.deleteById(postId);
+            });
+        }
+    }
+
+    @Test
+    void enqueueDuringComplete_keepsNewerRequest() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        createPendingPost();
+
+        CountDownLatch embedding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(embeddingProvider.embedInBackground(anyString())).thenAnswer(invocation -> {
+            embedding.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return Optional.of(new float[EmbeddingProvider.DIMENSION]);
+        });
+        CompletableFuture<Void> worker = CompletableFuture.runAsync(outboxService::poll);
+        assertTrue(embedding.await(10, TimeUnit.SECONDS));
+
+        // 게시글 수정 트랜잭션이 재요청을 남긴 채 커밋 전에 워커가 완료를 기록하려 합니다.
+        TransactionStatus edit = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        outboxService.enqueue(postId);
+        release.countDown();
+        Thread.sleep(300);
+        assertFalse(worker.isDone(), "worker must wait for the row lock held by the edit");
+        transactionManager.commit(edit);
+        worker.get(10, TimeUnit.SECONDS);
+
+        EmbeddingOutbox outbox = tx.execute(status -> outboxRepository.findByPostIdForUpdate(postId).orElse(null));
+        assertEquals(2, outbox == null ? 0 : outbox.getRequests());
+        assertEquals(EmbeddingStatus.PENDING, postRepository.findById(postId).orElseThrow().getEmbeddingStatus());
+    }
+
+    @Test
+    void providerRejection_postponesWithoutUsingAttempts() {
+        createPendingPost();
+        when(embeddingProvider.embedInBackground(anyString()))
+                .thenThrow(new EmbeddingUnavailableException("circuit open"));
+
+        outboxService.poll();
+
+        EmbeddingOutbox outbox = new TransactionTemplate(transactionManager)
+                .execute(status -> outboxRepository.findByPostIdForUpdate(postId).orElseThrow());
+        assertEquals(0, outbox.getAttempts());
+        assertEquals("circuit open", outbox.getLastError());
+        assertTrue(outbox.getNextAttemptAt().isAfter(OffsetDateTime.now()));
+        assertEquals(EmbeddingStatus.PENDING, postRepository.findById(postId).orElseThrow().getEmbeddingStatus());
+    }
+
+    @Test
+    void requeueFailed_enqueuesFailedPostsAgain() {
+        createPendingPost();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            outboxRepository.findByPostIdForUpdate(postId).ifPresent(outboxRepository::delete);
+            postRepository.updateEmbeddingStatus(postId, EmbeddingStatus.FAILED.name());
+        });
+
+        outboxService.requeueFailed();
+
+        assertEquals(EmbeddingStatus.PENDING, postRepository.findById(postId).orElseThrow().getEmbeddingStatus());
+        assertTrue(tx.execute(status -> outboxRepository.findByPostIdForUpdate(postId)).isPresent());
+    }
+
+    private void createPendingPost() {
+        postId = snowflake.nextId();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Post post = new Post();
+            post.setId(postId);
+            post.setSlug("outbox-" + postId);
+            post.setTitle("제목");
+            post.setContent("내용");
+            post.setEmbeddingStatus(EmbeddingStatus.PENDING);
+            postRepository.save(post);
+            outboxService.enqueue(postId);
+        });
+    }
+}
@@ -0,0 +1,73 @@
+package gc.demo;
+
+import gc.demo.config.FeedProperties;
+import gc.demo.domain.PostChangedEvent;
+import gc.demo.repository.PostFeedRow;
+import gc.demo.service.FeedCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FeedCacheTests {
+    private static final OffsetDateTime NOW = OffsetDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final FeedCache cache = new FeedCache(properties(5), registry);
+
+    @Test
+    void page_servesFirstPagesFromOneSnapshot() {
+        IntFunction<List<PostFeedRow>> loader = rows(5);
+
+        assertEquals(List.of(5L, 4L), ids(cache.page(null, null, null, 2, loader)));
+        // 커서는 다른 오프셋으로 와도 같은 시각이면 같은 위치입니다.
+        OffsetDateTime cursor = NOW.plusMinutes(4).withOffsetSameInstant(ZoneOffset.ofHours(9));
+        assertEquals(List.of(3L, 2L), ids(cache.page(null, cursor, 4L, 2, loader)));
+        assertEquals(1, loads.get());
+        assertEquals(2.0, registry.get("feed.cache.requests").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void page_fallsBackBeyondSnapshotAndReloadsAfterChange() {
+        IntFunction<List<PostFeedRow>> loader = rows(20);
+
+        assertTrue(cache.page("admin", NOW.plusMinutes(17), 17L, 2, loader).isEmpty());
+        assertTrue(cache.page("admin", null, null, 6, loader).isEmpty());
+
+        cache.onPostChanged(PostChangedEvent.deleted(20L));
+        assertEquals(List.of(20L), ids(cache.page("admin", null, null, 1, loader)));
+        assertEquals(2, loads.get());
+    }
+
+    // createdAt이 id분 뒤인 게시글 total개 중 최신 depth개
+    private IntFunction<List<PostFeedRow>> rows(int total) {
+        return depth -> {
+            loads.incrementAndGet();
+            List<PostFeedRow> rows = new ArrayList<>();
+            for (long id = total; id > 0 && rows.size() < depth; id--) {
+                rows.add(new PostFeedRow(id, "post-" + id, "title", null, NOW.plusMinutes(id)));
+            }
+            return rows;
+        };
+    }
+
+    private static List<Long> ids(Optional<List<PostFeedRow>> page) {
+        return page.orElseThrow().stream().map(PostFeedRow::id).toList();
+    }
+
+    private static FeedProperties properties(int depth) {
+        FeedProperties properties = new FeedProperties();
+        properties.getCache().setDepth(depth);
+        return properties;
+    }
+}
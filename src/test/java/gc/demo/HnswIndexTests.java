@@ -0,0 +1,123 @@
+package gc.demo;
+
+import gc.demo.search.HnswIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HnswIndexTests {
+    private static final int DIMENSION = 32;
+
+    @Test
+    void search_matchesBruteForceWithHighRecall() {
+        Random random = new Random(7);
+        float[][] vectors = randomVectors(random, 2000);
+        HnswIndex index = new HnswIndex(DIMENSION, 16, 100);
+        for (int i = 0; i < vectors.length; i++) {
+            index.upsert(i, vectors[i]);
+        }
+
+        int k = 10;
+        int matched = 0;
+        int queries = 50;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomVectors(random, 1)[0];
+            Set<Long> expected = bruteForce(vectors, query, k);
+            for (HnswIndex.Hit hit : index.search(query, k, 64)) {
+                if (expected.contains(hit.id())) {
+                    matched++;
+                }
+            }
+        }
+        double recall = matched / (double) (queries * k);
+        assertTrue(recall >= 0.9, "recall@10 was " + recall);
+    }
+
+    @Test
+    void removedAndReplacedVectors_areNotReturned() {
+        Random random = new Random(11);
+        float[][] vectors = randomVectors(random, 300);
+        HnswIndex index = new HnswIndex(DIMENSION, 8, 50);
+        for (int i = 0; i < vectors.length; i++) {
+            index.upsert(i, vectors[i]);
+        }
+        // 절반 이상을 지워 compaction 경로까지 통과시킵니다.
+        for (int i = 0; i < 200; i++) {
+            index.remove(i);
+        }
+        assertEquals(100, index.size());
+
+        float[] replacement = randomVectors(random, 1)[0];
+        index.upsert(250, replacement);
+        List<HnswIndex.Hit> hits = index.search(replacement, 5, 50);
+        assertEquals(250L, hits.get(0).id());
+        assertFalse(hits.stream().anyMatch(hit -> hit.id() < 200));
+    }
+
+    @Test
+    void searchAfter_pagesWithoutGapsOrDuplicatesAcrossTies() {
+        Random random = new Random(17);
+        float[][] vectors = randomVectors(random, 150);
+        HnswIndex index = new HnswIndex(DIMENSION, 16, 200);
+        for (int i = 0; i < vectors.length; i++) {
+            index.upsert(i, vectors[i]);
+        }
+        // 같은 벡터를 여러 id로 넣어 페이지 경계에 동점이 생기게 합니다.
+        for (int i = 0; i < 20; i++) {
+            index.upsert(1000 + i, vectors[i % 4]);
+        }
+        float[] query = vectors[0];
+
+        List<HnswIndex.Hit> expected = index.searchAfter(query, index.size(), index.size(), null);
+        List<HnswIndex.Hit> paged = new ArrayList<>();
+        HnswIndex.Hit last = null;
+        for (List<HnswIndex.Hit> page = index.searchAfter(query, 3, 10, null); !page.isEmpty();
+             page = index.searchAfter(query, 3, 10, last)) {
+            paged.addAll(page);
+            last = page.get(page.size() - 1);
+        }
+        assertEquals(index.size(), expected.size());
+        assertEquals(expected, paged);
+    }
+
+    private static Set<Long> bruteForce(float[][] vectors, float[] query, int k) {
+        Set<Long> ids = new HashSet<>();
+        IntStream.range(0, vectors.length).boxed()
+                .sorted(Comparator.comparingDouble(i -> cosineDistance(vectors[i], query)))
+                .limit(k)
+                .forEach(i -> ids.add((long) i));
+        return ids;
+    }
+
+    private static double cosineDistance(float[] a, float[] b) {
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return 1 - dot / (Math.sqrt(normA) * Math.sqrt(normB));
+    }
+
+    private static float[][] randomVectors(Random random, int count) {
+        float[][] vectors = new float[count][DIMENSION];
+        for (float[] vector : vectors) {
+            for (int i = 0; i < DIMENSION; i++) {
+                vector[i] = (float) random.nextGaussian();
+            }
+        }
+        return vectors;
+    }
+}
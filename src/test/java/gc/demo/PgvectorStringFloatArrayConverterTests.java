@@ -0,0 +1,142 @@
+package gc.demo;
+
+import gc.demo.converter.PgvectorStringFloatArrayConverter;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PgvectorStringFloatArrayConverterTests {
+    private final PgvectorStringFloatArrayConverter converter = new PgvectorStringFloatArrayConverter();
+
+    @Test
+    void roundTrip_preservesEveryFloatBitPattern() {
+        Random random = new Random(11);
+        for (int round = 0; round < 2000; round++) {
+            float[] values = new float[384];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = switch (i % 4) {
+                    case 0 -> (float) random.nextGaussian() / 20f;
+                    case 1 -> randomFiniteFloat(random);
+                    case 2 -> (float) (random.nextDouble() * Math.pow(10, random.nextInt(20) - 10));
+                    default -> random.nextInt(2000) - 1000;
+                };
+            }
+            assertBitsEqual(values, converter.convertToEntityAttribute(converter.convertToDatabaseColumn(values)));
+        }
+    }
+
+    @Test
+    void roundTrip_handlesBoundaryValues() {
+        float[] values = {0f, -0f, 1f, -1f, 0.1f, 100f, 123456789f, 1e-4f, 9.9999999e-5f, Float.MIN_VALUE,
+                -Float.MIN_VALUE, Float.MIN_NORMAL, Float.MAX_VALUE, -Float.MAX_VALUE, 9.999999f, 99999.99f};
+        assertBitsEqual(values, converter.convertToEntityAttribute(converter.convertToDatabaseColumn(values)));
+    }
+
+    @Test
+    void write_isNeverLongerThanFloatToString() {
+        Random random = new Random(31);
+        for (int round = 0; round < 200_000; round++) {
+            float value = round % 2 == 0 ? randomFiniteFloat(random) : (float) random.nextGaussian() / 20f;
+            String written = converter.convertToDatabaseColumn(new float[]{value});
+            String token = written.substring(1, written.length() - 1);
+            // JDK 17의 Float.toString은 가장 짧은 표기가 아닐 때가 있어 같거나 짧으면 통과입니다.
+            assertTrue(significantDigits(token) <= significantDigits(Float.toString(value)),
+                    token + " is longer than " + value);
+        }
+    }
+
+    @Test
+    void write_carriesRoundedDigitsToNextPowerOfTen() {
+        assertEquals("[1e-5,0.001,100,1e10,1e-45]",
+                converter.convertToDatabaseColumn(new float[]{1e-5f, 0.001f, 100f, 1e10f, Float.MIN_VALUE}));
+    }
+
+    @Test
+    void parse_matchesFloatParseFloat() {
+        Random random = new Random(23);
+        for (int round = 0; round < 200_000; round++) {
+            String token = switch (round % 3) {
+                case 0 -> Float.toString(randomFiniteFloat(random));
+                case 1 -> Double.toString(random.nextGaussian() * Math.pow(10, random.nextInt(16) - 8));
+                default -> randomDecimal(random);
+            };
+            float[] parsed = converter.convertToEntityAttribute("[" + token + "]");
+            assertEquals(Float.floatToRawIntBits(Float.parseFloat(token)), Float.floatToRawIntBits(parsed[0]), token);
+        }
+    }
+
+    @Test
+    void parse_acceptsLegacyFormatting() {
+        assertNull(converter.convertToEntityAttribute(null));
+        assertArrayEquals(new float[0], converter.convertToEntityAttribute(""));
+        assertArrayEquals(new float[0], converter.convertToEntityAttribute(" [ ] "));
+        assertArrayEquals(new float[]{1f, 2.5f, -3e-7f}, converter.convertToEntityAttribute(" [1, 2.5 ,-3.0E-7] "));
+        assertArrayEquals(new float[]{1f, 2f}, converter.convertToEntityAttribute("1,,2,"));
+        assertThrows(NumberFormatException.class, () -> converter.convertToEntityAttribute("[1,abc]"));
+    }
+
+    private static void assertBitsEqual(float[] expected, float[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(Float.floatToRawIntBits(expected[i]), Float.floatToRawIntBits(actual[i]),
+                    "index " + i + ": " + expected[i] + " != " + actual[i]);
+        }
+    }
+
+    private static int significantDigits(String token) {
+        int digits = 0;
+        int trailingZeros = 0;
+        boolean leading = true;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c == 'e' || c == 'E') {
+                break;
+            }
+            if (c < '0' || c > '9' || (leading && c == '0')) {
+                continue;
+            }
+            leading = false;
+            digits++;
+            trailingZeros = c == '0' ? trailingZeros + 1 : 0;
+        }
+        return Math.max(1, digits - trailingZeros);
+    }
+
+    private static float randomFiniteFloat(Random random) {
+        float value;
+        do {
+            value = Float.intBitsToFloat(random.nextInt());
+        } while (Float.isNaN(value) || Float.isInfinite(value));
+        return value;
+    }
+
+    // 경계값 근처를 노리도록 가수 자릿수와 지수를 무작위로 섞은 10진 문자열
+    private static String randomDecimal(Random random) {
+        StringBuilder sb = new StringBuilder();
+        if (random.nextBoolean()) {
+            sb.append('-');
+        }
+        int integerDigits = random.nextInt(4);
+        for (int i = 0; i < integerDigits; i++) {
+            sb.append((char) ('0' + random.nextInt(10)));
+        }
+        if (integerDigits == 0) {
+            sb.append('0');
+        }
+        sb.append('.');
+        int fractionDigits = 1 + random.nextInt(20);
+        for (int i = 0; i < fractionDigits; i++) {
+            sb.append((char) ('0' + random.nextInt(10)));
+        }
+        if (random.nextInt(3) == 0) {
+            sb.append('e').append(random.nextInt(60) - 30);
+        }
+        return sb.toString();
+    }
+}
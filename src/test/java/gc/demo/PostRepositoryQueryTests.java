@@ -1,21 +1,144 @@
 package gc.demo;
 
+import gc.demo.domain.EmbeddingStatus;
+import gc.demo.domain.PostKind;
+import gc.demo.entity.Post;
+import gc.demo.repository.PostRelatedRepository;
 import gc.demo.repository.PostRepository;
+import gc.demo.repository.PostSearchHit;
+import gc.demo.service.EmbeddingProvider;
+import gc.demo.util.Snowflake;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.PageRequest;
 
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @SpringBootTest
 class PostRepositoryQueryTests {
     @Autowired
     private PostRepository postRepository;
+    @Autowired
+    private PostRelatedRepository relatedRepository;
+    @Autowired
+    private Snowflake snowflake;
+
+    private final List<Long> created = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        postRepository.deleteAllById(created);
+    }
 
     @Test
     void feedQuery_acceptsNullCursorOnFirstPage() {
         assertDoesNotThrow(() ->
-                postRepository.findFeedFirst("admin", PageRequest.of(0, 1)));
+                postRepository.findFeedFirstByKind(PostKind.ADMIN, PageRequest.of(0, 1)));
+    }
+
+    @Test
+    void feedQuery_continuesAfterRowCursor() {
+        assertDoesNotThrow(() ->
+                postRepository.findFeedAfterByKind(PostKind.COMMUNITY, OffsetDateTime.now(), Long.MAX_VALUE,
+                        PageRequest.of(0, 1)));
+    }
+
+    @Test
+    void listQuery_projectsAuthorColumns() {
+        assertDoesNotThrow(() ->
+                postRepository.findListRowsByKind(PostKind.COMMUNITY, PageRequest.of(0, 1)));
+    }
+
+    @Test
+    void countEstimate_readsPlannerRows() {
+        assertDoesNotThrow(() -> postRepository.estimateCount(PostKind.ADMIN));
+    }
+
+    @Test
+    void lexicalSearch_acceptsWebSearchSyntax() {
+        assertDoesNotThrow(() ->
+                postRepository.searchLexical("\"spring boot\" -legacy 검색", PageRequest.of(0, 5)));
+    }
+
+    @Test
+    void fuzzySearch_toleratesTypos() {
+        assertDoesNotThrow(() ->
+                postRepository.searchFuzzy("sprnig bot", PageRequest.of(0, 5)));
+    }
+
+    @Test
+    void relatedPosts_readsPrecomputedList() {
+        assertDoesNotThrow(() ->
+                postRepository.findRelatedHits("missing-post", 5));
+    }
+
+    @Test
+    void relatedPosts_insertsNeighboursThroughConfiguredIndexExpression() {
+        assertDoesNotThrow(() -> relatedRepository.insertNearestNeighbours(-1L, 5));
+    }
+
+    @Test
+    void updateEmbedding_writesBinaryVectorAndMarksReady() {
+        float[] embedding = randomEmbedding(31);
+        Long id = createPost(null, EmbeddingStatus.PENDING);
+
+        assertEquals(1, postRepository.updateEmbedding(id, embedding));
+
+        assertEquals(EmbeddingStatus.READY, postRepository.findById(id).orElseThrow().getEmbeddingStatus());
+        PostSearchHit hit = postRepository.searchByEmbedding(embedding, PageRequest.of(0, 1), null).get(0);
+        assertEquals(id, hit.id());
+        assertEquals(1.0, hit.similarity(), 1e-6);
+    }
+
+    @Test
+    void vectorSearch_pagesThroughTiedEmbeddingsWithoutSkipping() {
+        float[] embedding = randomEmbedding(29);
+        for (int i = 0; i < 3; i++) {
+            createPost(embedding, EmbeddingStatus.READY);
+        }
+
+        // 세 게시글의 유사도가 같아 첫 페이지 경계에 동점이 걸칩니다.
+        List<PostSearchHit> first = postRepository.searchByEmbedding(embedding, PageRequest.of(0, 2), null);
+        PostSearchHit last = first.get(first.size() - 1);
+        List<PostSearchHit> second = postRepository.searchByEmbedding(embedding, PageRequest.of(0, 2), null,
+                last.similarity(), last.id());
+
+        List<Long> seen = new ArrayList<>();
+        first.forEach(hit -> seen.add(hit.id()));
+        second.forEach(hit -> seen.add(hit.id()));
+        Set<Long> ours = seen.stream().filter(created::contains).collect(Collectors.toSet());
+        assertEquals(Set.copyOf(created), ours);
+        assertEquals(seen.size(), Set.copyOf(seen).size());
+    }
+
+    private Long createPost(float[] embedding, EmbeddingStatus status) {
+        Post post = new Post();
+        post.setId(snowflake.nextId());
+        post.setSlug("vector-query-" + post.getId());
+        post.setTitle("제목");
+        post.setContent("내용");
+        post.setEmbedding(embedding);
+        post.setEmbeddingStatus(status);
+        created.add(postRepository.save(post).getId());
+        return post.getId();
+    }
+
+    private static float[] randomEmbedding(long seed) {
+        float[] embedding = new float[EmbeddingProvider.DIMENSION];
+        Random random = new Random(seed);
+        for (int i = 0; i < embedding.length; i++) {
+            embedding[i] = (float) random.nextGaussian();
+        }
+        return embedding;
     }
 }
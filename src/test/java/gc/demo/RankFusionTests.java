@@ -0,0 +1,37 @@
+package gc.demo;
+
+import gc.demo.repository.PostSearchHit;
+import gc.demo.search.RankFusion;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RankFusionTests {
+
+    @Test
+    void reciprocalRank_favoursDocumentsRankedByBothLists() {
+        List<PostSearchHit> vector = List.of(hit(1L, 0.9), hit(2L, 0.8), hit(3L, 0.7));
+        List<PostSearchHit> lexical = List.of(hit(3L, null), hit(4L, null), hit(1L, null));
+
+        List<PostSearchHit> fused = RankFusion.reciprocalRank(List.of(vector, lexical), 60, 10);
+
+        assertEquals(List.of(1L, 3L, 2L, 4L), fused.stream().map(PostSearchHit::id).toList());
+        // 먼저 나온 목록(벡터)의 유사도를 유지합니다.
+        assertEquals(0.7, fused.get(1).similarity());
+    }
+
+    @Test
+    void reciprocalRank_truncatesToLimitAndToleratesEmptyLists() {
+        List<PostSearchHit> lexical = List.of(hit(5L, null), hit(6L, null), hit(7L, null));
+
+        List<PostSearchHit> fused = RankFusion.reciprocalRank(List.of(List.of(), lexical), 60, 2);
+
+        assertEquals(List.of(5L, 6L), fused.stream().map(PostSearchHit::id).toList());
+    }
+
+    private static PostSearchHit hit(Long id, Double similarity) {
+        return new PostSearchHit(id, "post-" + id, "title", "", null, similarity);
+    }
+}
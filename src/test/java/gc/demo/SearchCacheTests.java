@@ -0,0 +1,62 @@
+package gc.demo;
+
+import gc.demo.config.SearchProperties;
+import gc.demo.domain.PostChangedEvent;
+import gc.demo.dto.response.SearchResponse;
+import gc.demo.search.SearchMode;
+import gc.demo.service.SearchCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class SearchCacheTests {
+    private static final SearchCache.ResultKey KEY = new SearchCache.ResultKey("spring", 10, null, SearchMode.AUTO, null);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SearchCache cache = new SearchCache(new SearchProperties(), registry);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void results_servesRepeatedQueryFromCache() {
+        SearchResponse first = cache.results(KEY, loader());
+
+        assertSame(first, cache.results(KEY, loader()));
+        assertEquals(1, loads.get());
+        assertEquals(1.0, registry.get("search.cache.requests").tag("cache", "result").tag("result", "hit")
+                .counter().count());
+    }
+
+    @Test
+    void results_reloadsAfterPostChange() {
+        cache.results(KEY, loader());
+
+        cache.onPostChanged(PostChangedEvent.saved(1L));
+        cache.results(KEY, loader());
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void results_doesNotKeepResultLoadedAcrossInvalidation() {
+        // 결과를 계산하는 도중 게시글이 바뀌면, 계산한 결과는 이미 오래된 것이므로 남지 않아야 합니다.
+        cache.results(KEY, () -> {
+            SearchResponse loaded = loader().get();
+            cache.onPostChanged(PostChangedEvent.saved(1L));
+            return loaded;
+        });
+
+        cache.results(KEY, loader());
+
+        assertEquals(2, loads.get());
+    }
+
+    private Supplier<SearchResponse> loader() {
+        return () -> new SearchResponse(List.of(), false, "load-" + loads.incrementAndGet());
+    }
+}
@@ -0,0 +1,36 @@
+package gc.demo;
+
+import gc.demo.search.SearchCursor;
+import gc.demo.search.SearchMode;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SearchCursorTests {
+
+    @Test
+    void roundTrip_keepsExactSimilarityBits() {
+        SearchCursor cursor = SearchCursor.vector(0.1 + 0.2, 123456789012345L);
+        SearchCursor decoded = SearchCursor.decode(cursor.encode());
+        assertEquals(cursor, decoded);
+        assertEquals(Double.doubleToRawLongBits(0.1 + 0.2), Double.doubleToRawLongBits(decoded.similarity()));
+    }
+
+    @Test
+    void roundTrip_lexicalCursorHasNoSimilarity() {
+        SearchCursor decoded = SearchCursor.decode(SearchCursor.lexical(42L).encode());
+        assertEquals(SearchMode.LEXICAL, decoded.source());
+        assertNull(decoded.similarity());
+        assertEquals(42L, decoded.id());
+    }
+
+    @Test
+    void decode_rejectsMalformedCursors() {
+        assertNull(SearchCursor.decode(" "));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode("MTpGVVpaWTo6MQ"));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode("MjpWRUNUT1I6OjE"));
+    }
+}
@@ -0,0 +1,43 @@
+package gc.demo;
+
+import gc.demo.repository.PostTitle;
+import gc.demo.search.TitlePrefixIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TitlePrefixIndexTests {
+
+    @Test
+    void suggest_ranksTitleStartBeforeInnerWordAndSlug() {
+        TitlePrefixIndex index = new TitlePrefixIndex();
+        index.replaceAll(List.of(
+                new PostTitle(1L, "getting-started", "Spring Boot 시작하기"),
+                new PostTitle(2L, "boot-notes", "부트 노트"),
+                new PostTitle(3L, "jvm", "Boot sequence of the JVM"),
+                new PostTitle(4L, "misc", "기타")));
+
+        assertEquals(List.of(3L, 1L, 2L), ids(index.suggest("  BOOT", 10)));
+        assertEquals(List.of(1L), ids(index.suggest("spring bo", 10)));
+        assertEquals(List.of(1L), ids(index.suggest("시작", 10)));
+        assertEquals(List.of(), ids(index.suggest("-", 10)));
+    }
+
+    @Test
+    void update_replacesChangedTitlesAndRemovesDeletedPosts() {
+        TitlePrefixIndex index = new TitlePrefixIndex();
+        index.replaceAll(List.of(new PostTitle(1L, "a", "Kotlin tips"), new PostTitle(2L, "b", "Kafka basics")));
+
+        index.update(List.of(2L), List.of(new PostTitle(1L, "a", "Java tips"), new PostTitle(3L, "c", "Kubernetes")));
+
+        assertEquals(List.of(3L), ids(index.suggest("k", 10)));
+        assertEquals(List.of(1L), ids(index.suggest("tips", 10)));
+        assertEquals(2, index.size());
+    }
+
+    private static List<Long> ids(List<PostTitle> titles) {
+        return titles.stream().map(PostTitle::id).toList();
+    }
+}
@@ -0,0 +1,52 @@
+package gc.demo;
+
+import gc.demo.search.VectorMath;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// 커널별 정확도는 search.VectorKernelTests가 확인하고, 여기서는 VectorMath가 더하는 배치 API와 인자 검사만 봅니다.
+class VectorMathTests {
+    private final Random random = new Random(5);
+
+    @Test
+    void batch_matchesSingleVectorCalls() {
+        int dimension = 384;
+        int rows = 37;
+        float[] query = randomVector(dimension);
+        float[] matrix = randomVector(dimension * rows);
+        float[] dots = new float[rows];
+        float[] cosines = new float[rows];
+        VectorMath.dotAll(query, matrix, rows, dots);
+        VectorMath.cosineAll(query, matrix, rows, cosines);
+        for (int row = 0; row < rows; row++) {
+            float[] vector = new float[dimension];
+            System.arraycopy(matrix, row * dimension, vector, 0, dimension);
+            assertEquals(VectorMath.dot(query, vector), dots[row], 1e-6);
+            assertEquals(VectorMath.cosineSimilarity(query, vector), cosines[row], 1e-6);
+        }
+    }
+
+    @Test
+    void degenerateInputs() {
+        assertEquals(0.0, VectorMath.cosineSimilarity(new float[3], new float[]{1, 2, 3}));
+        assertEquals(0.0, VectorMath.cosineSimilarity(new float[]{1, 2}, new float[]{1, 2, 3}));
+        assertEquals(0.0, VectorMath.cosineSimilarity(null, new float[]{1}));
+        assertThrows(IllegalArgumentException.class, () -> VectorMath.dot(new float[2], new float[3]));
+        assertThrows(IllegalArgumentException.class,
+                () -> VectorMath.dotAll(new float[4], new float[7], 2, new float[2]));
+        assertThrows(IllegalArgumentException.class,
+                () -> VectorMath.cosineAll(new float[4], new float[8], 2, new float[1]));
+    }
+
+    private float[] randomVector(int length) {
+        float[] vector = new float[length];
+        for (int i = 0; i < length; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,107 @@
+package gc.demo.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * VectorMath는 JVM마다 구현 하나만 고르므로, 두 구현을 직접 만들어 같은 입력으로 비교합니다.
+ * Gradle test 태스크는 jdk.incubator.vector를 켜고 실행하므로 SIMD 구현이 반드시 있어야 합니다.
+ */
+class VectorKernelTests {
+    // 레인 폭으로 나누어떨어지지 않는 길이도 섞어 꼬리 처리까지 확인합니다.
+    private static final int[] LENGTHS = {1, 2, 3, 7, 8, 15, 16, 17, 31, 64, 383, 384, 385};
+
+    private final Random random = new Random(13);
+
+    @Test
+    void simdKernel_isAvailableUnderTheBuild() {
+        assertTrue(VectorMath.simdKernel().isPresent(), "run tests with --add-modules jdk.incubator.vector");
+    }
+
+    @Test
+    void kernels_matchDoublePrecisionReference() {
+        for (VectorKernel kernel : kernels()) {
+            for (int length : LENGTHS) {
+                float[] a = randomVector(length);
+                float[] b = randomVector(length);
+                double dot = 0;
+                double normA = 0;
+                double normB = 0;
+                double l2 = 0;
+                for (int i = 0; i < length; i++) {
+                    dot += (double) a[i] * b[i];
+                    normA += (double) a[i] * a[i];
+                    normB += (double) b[i] * b[i];
+                    l2 += ((double) a[i] - b[i]) * ((double) a[i] - b[i]);
+                }
+                String name = kernel.getClass().getSimpleName() + " length " + length;
+                assertEquals(dot, kernel.dot(a, 0, b, 0, length), 1e-4, "dot " + name);
+                assertEquals(l2, kernel.squaredL2(a, 0, b, 0, length), 1e-3, "l2 " + name);
+                assertEquals(dot / Math.sqrt(normA * normB), kernel.cosine(a, 0, b, 0, length), 1e-5, "cosine " + name);
+            }
+        }
+    }
+
+    @Test
+    void kernels_readRowsAtOffsets() {
+        int dimension = 384;
+        int rows = 5;
+        float[] query = randomVector(dimension);
+        float[] matrix = randomVector(dimension * rows);
+        for (VectorKernel kernel : kernels()) {
+            for (int row = 0; row < rows; row++) {
+                float[] vector = new float[dimension];
+                System.arraycopy(matrix, row * dimension, vector, 0, dimension);
+                assertEquals(kernel.dot(query, 0, vector, 0, dimension),
+                        kernel.dot(query, 0, matrix, row * dimension, dimension), 0f);
+                assertEquals(kernel.cosine(query, 0, vector, 0, dimension),
+                        kernel.cosine(query, 0, matrix, row * dimension, dimension), 0f);
+                assertEquals(kernel.squaredL2(vector, 0, query, 0, dimension),
+                        kernel.squaredL2(matrix, row * dimension, query, 0, dimension), 0f);
+            }
+        }
+    }
+
+    @Test
+    void kernels_agreeWithEachOther() {
+        List<VectorKernel> kernels = kernels();
+        VectorKernel scalar = kernels.get(0);
+        for (VectorKernel kernel : kernels.subList(1, kernels.size())) {
+            for (int length : LENGTHS) {
+                float[] a = randomVector(length);
+                float[] b = randomVector(length);
+                assertEquals(scalar.dot(a, 0, b, 0, length), kernel.dot(a, 0, b, 0, length), 1e-3);
+                assertEquals(scalar.squaredL2(a, 0, b, 0, length), kernel.squaredL2(a, 0, b, 0, length), 1e-2);
+                assertEquals(scalar.cosine(a, 0, b, 0, length), kernel.cosine(a, 0, b, 0, length), 1e-5);
+            }
+        }
+    }
+
+    @Test
+    void kernels_returnZeroCosineForZeroVector() {
+        for (VectorKernel kernel : kernels()) {
+            for (int length : LENGTHS) {
+                assertEquals(0f, kernel.cosine(new float[length], 0, randomVector(length), 0, length));
+            }
+        }
+    }
+
+    private static List<VectorKernel> kernels() {
+        Optional<VectorKernel> simd = VectorMath.simdKernel();
+        return simd.isPresent() ? List.of(new ScalarVectorKernel(), simd.get()) : List.of(new ScalarVectorKernel());
+    }
+
+    private float[] randomVector(int length) {
+        float[] vector = new float[length];
+        for (int i = 0; i < length; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
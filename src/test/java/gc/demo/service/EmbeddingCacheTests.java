@@ -0,0 +1,97 @@
+package gc.demo.service;
+
+import gc.demo.config.EmbeddingProperties;
+import gc.demo.entity.EmbeddingCacheEntry;
+import gc.demo.repository.EmbeddingCacheRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EmbeddingCacheTests {
+    private static final float[] EMBEDDING = {0.1f, 0.2f, 0.3f};
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final EmbeddingCacheRepository repository = mock(EmbeddingCacheRepository.class);
+
+    @Test
+    void memoryTier_countsMissThenHit() {
+        EmbeddingCache cache = cache(false);
+
+        assertTrue(cache.get("openai:text-embedding-3-small", "검색").isEmpty());
+        cache.put("openai:text-embedding-3-small", "검색", EMBEDDING);
+
+        assertArrayEquals(EMBEDDING, cache.get("openai:text-embedding-3-small", "검색").orElseThrow());
+        assertEquals(1.0, requests("memory", "miss"));
+        assertEquals(1.0, requests("memory", "hit"));
+    }
+
+    @Test
+    void keys_differByProviderName() {
+        EmbeddingCache cache = cache(false);
+        cache.put("openai:text-embedding-3-small", "검색", EMBEDDING);
+
+        assertTrue(cache.get("local:paraphrase-multilingual-MiniLM-L12-v2", "검색").isEmpty());
+        assertTrue(cache.get("openai:text-embedding-3-large", "검색").isEmpty());
+    }
+
+    @Test
+    void cachedArrays_areDefensiveCopies() {
+        EmbeddingCache cache = cache(false);
+        float[] stored = EMBEDDING.clone();
+        cache.put("openai:text-embedding-3-small", "검색", stored);
+        stored[0] = 9f;
+
+        float[] first = cache.get("openai:text-embedding-3-small", "검색").orElseThrow();
+        first[1] = 9f;
+
+        assertArrayEquals(EMBEDDING, cache.get("openai:text-embedding-3-small", "검색").orElseThrow());
+    }
+
+    @Test
+    void persistentTier_fillsMemoryOnHit() {
+        EmbeddingCache cache = cache(true);
+        EmbeddingCacheEntry entry = new EmbeddingCacheEntry();
+        entry.setEmbedding(EMBEDDING.clone());
+        when(repository.findById(anyString())).thenReturn(Optional.of(entry));
+
+        assertArrayEquals(EMBEDDING, cache.get("openai:text-embedding-3-small", "검색").orElseThrow());
+        assertArrayEquals(EMBEDDING, cache.get("openai:text-embedding-3-small", "검색").orElseThrow());
+        assertEquals(1.0, requests("persistent", "hit"));
+        assertEquals(1.0, requests("memory", "hit"));
+    }
+
+    @Test
+    void persistentTierFailure_doesNotPropagate() {
+        EmbeddingCache cache = cache(true);
+        when(repository.findById(anyString())).thenThrow(new DataAccessResourceFailureException("down"));
+        when(repository.save(any())).thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertTrue(cache.get("openai:text-embedding-3-small", "검색").isEmpty());
+        cache.put("openai:text-embedding-3-small", "검색", EMBEDDING);
+
+        // 저장소가 실패해도 메모리 단계에는 남습니다.
+        assertArrayEquals(EMBEDDING, cache.get("openai:text-embedding-3-small", "검색").orElseThrow());
+        assertEquals(1.0, requests("persistent", "miss"));
+    }
+
+    private EmbeddingCache cache(boolean persistent) {
+        EmbeddingProperties properties = new EmbeddingProperties();
+        properties.getCache().setPersistent(persistent);
+        return new EmbeddingCache(properties, repository, mock(PlatformTransactionManager.class), registry);
+    }
+
+    private double requests(String tier, String result) {
+        return registry.get("embedding.cache.requests").tag("tier", tier).tag("result", result).counter().count();
+    }
+}
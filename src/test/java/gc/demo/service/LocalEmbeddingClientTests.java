@@ -0,0 +1,56 @@
+package gc.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LocalEmbeddingClientTests {
+    private static final int DIMENSION = EmbeddingProvider.DIMENSION;
+
+    @Test
+    void meanPool_averagesUnmaskedTokensAndNormalizes() {
+        float[][] tokens = new float[3][DIMENSION];
+        tokens[0][0] = 2;
+        tokens[1][1] = 2;
+        // 패딩 토큰은 mask가 0이라 평균에 들어가지 않아야 합니다.
+        tokens[2][2] = 100;
+
+        float[] pooled = LocalEmbeddingClient.meanPool(tokens, new long[]{1, 1, 0});
+
+        float expected = (float) (1 / Math.sqrt(2));
+        assertEquals(expected, pooled[0], 1e-6);
+        assertEquals(expected, pooled[1], 1e-6);
+        assertEquals(0f, pooled[2]);
+        assertEquals(1.0, norm(pooled), 1e-6);
+    }
+
+    @Test
+    void meanPool_scalesToUnitLength() {
+        float[][] tokens = new float[1][DIMENSION];
+        tokens[0][0] = 3;
+        tokens[0][DIMENSION - 1] = 4;
+
+        float[] pooled = LocalEmbeddingClient.meanPool(tokens, new long[]{1});
+
+        assertEquals(0.6f, pooled[0], 1e-6);
+        assertEquals(0.8f, pooled[DIMENSION - 1], 1e-6);
+        assertEquals(1.0, norm(pooled), 1e-6);
+    }
+
+    @Test
+    void meanPool_returnsNullForZeroVector() {
+        assertNull(LocalEmbeddingClient.meanPool(new float[2][DIMENSION], new long[]{1, 1}));
+        float[][] masked = new float[1][DIMENSION];
+        masked[0][0] = 1;
+        assertNull(LocalEmbeddingClient.meanPool(masked, new long[]{0}));
+    }
+
+    private static double norm(float[] vector) {
+        double sum = 0;
+        for (float value : vector) {
+            sum += value * value;
+        }
+        return Math.sqrt(sum);
+    }
+}
@@ -0,0 +1,157 @@
+package gc.demo.service;
+
+import gc.demo.config.EmbeddingProperties;
+import gc.demo.config.OpenAIProperties;
+import gc.demo.repository.EmbeddingCacheRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.jsonPath;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withBadRequest;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class OpenAIEmbeddingClientTests {
+    private final MockServerRestTemplateCustomizer mockServer = new MockServerRestTemplateCustomizer();
+
+    @Test
+    void embeddingV3Request_asksForPostEmbeddingDimensions() {
+        OpenAIEmbeddingClient client = client("text-embedding-3-small");
+        MockRestServiceServer server = mockServer.getServer();
+        server.expect(requestTo("https://api.openai.com/v1/embeddings"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(jsonPath("$.model").value("text-embedding-3-small"))
+                .andExpect(jsonPath("$.input").value("spring search"))
+                .andExpect(jsonPath("$.dimensions").value(EmbeddingProvider.DIMENSION))
+                .andRespond(withSuccess(response(EmbeddingProvider.DIMENSION), MediaType.APPLICATION_JSON));
+
+        Optional<float[]> embedding = client.embed("spring search");
+
+        server.verify();
+        assertTrue(embedding.isPresent());
+        assertEquals(EmbeddingProvider.DIMENSION, embedding.get().length);
+    }
+
+    @Test
+    void legacyModelRequest_omitsDimensions() {
+        OpenAIEmbeddingClient client = client("text-embedding-ada-002");
+        MockRestServiceServer server = mockServer.getServer();
+        server.expect(requestTo("https://api.openai.com/v1/embeddings"))
+                .andExpect(jsonPath("$.dimensions").doesNotExist())
+                .andRespond(withSuccess(response(1536), MediaType.APPLICATION_JSON));
+
+        // ada-002는 1536차원이라 post.embedding에 맞지 않아 버립니다.
+        assertTrue(client.embed("spring search").isEmpty());
+        server.verify();
+    }
+
+    @Test
+    void name_includesModelSoCacheKeysDifferPerModel() {
+        assertEquals("openai:text-embedding-3-large", client("text-embedding-3-large").name());
+    }
+
+    @Test
+    void rejectedBatch_isRetriedOneInputAtATime() {
+        OpenAIEmbeddingClient client = client("text-embedding-3-small");
+        MockRestServiceServer server = mockServer.getServer();
+        server.expect(jsonPath("$.input.length()").value(2)).andRespond(withBadRequest());
+        server.expect(jsonPath("$.input").value("first"))
+                .andRespond(withSuccess(response(EmbeddingProvider.DIMENSION), MediaType.APPLICATION_JSON));
+        server.expect(jsonPath("$.input").value("second")).andRespond(withBadRequest());
+
+        List<float[]> embeddings = client.embedAll(List.of("first", "second"));
+
+        server.verify();
+        assertNotNull(embeddings.get(0));
+        assertNull(embeddings.get(1));
+    }
+
+    @Test
+    void failedBatch_isNotSplitIntoSingleRequests() {
+        OpenAIEmbeddingClient client = client("text-embedding-3-small");
+        MockRestServiceServer server = mockServer.getServer();
+        server.expect(jsonPath("$.input.length()").value(2)).andRespond(withServerError());
+
+        List<float[]> embeddings = client.embedAll(List.of("first", "second"));
+
+        server.verify();
+        assertNull(embeddings.get(0));
+        assertNull(embeddings.get(1));
+    }
+
+    @Test
+    void tokenEstimate_boundsMultiByteText() {
+        assertEquals(5, OpenAIEmbeddingClient.estimateTokens("hello"));
+        assertEquals(6, OpenAIEmbeddingClient.estimateTokens("검색"));
+        assertEquals(4, OpenAIEmbeddingClient.estimateTokens("\uD83D\uDD0D"));
+    }
+
+    @Test
+    void fullSearchBulkhead_doesNotRejectBackgroundGeneration() {
+        OpenAIProperties properties = properties("text-embedding-3-small");
+        properties.getResilience().setMaxConcurrentCalls(0);
+        OpenAIEmbeddingClient client = client(properties);
+        MockRestServiceServer server = mockServer.getServer();
+        server.expect(requestTo("https://api.openai.com/v1/embeddings"))
+                .andRespond(withSuccess(response(EmbeddingProvider.DIMENSION), MediaType.APPLICATION_JSON));
+
+        assertTrue(client.embed("spring search").isEmpty());
+        assertTrue(client.embedInBackground("spring search").isPresent());
+        server.verify();
+    }
+
+    @Test
+    void missingApiKey_isReportedAsUnavailableToBackgroundCallers() {
+        OpenAIProperties properties = properties("text-embedding-3-small");
+        properties.setApiKey("");
+        OpenAIEmbeddingClient client = client(properties);
+
+        assertTrue(client.embed("spring search").isEmpty());
+        assertThrows(EmbeddingUnavailableException.class, () -> client.embedInBackground("spring search"));
+    }
+
+    private OpenAIEmbeddingClient client(String model) {
+        return client(properties(model));
+    }
+
+    private static OpenAIProperties properties(String model) {
+        OpenAIProperties properties = new OpenAIProperties();
+        properties.setApiKey("test-key");
+        properties.setModel(model);
+        return properties;
+    }
+
+    private OpenAIEmbeddingClient client(OpenAIProperties properties) {
+        EmbeddingProperties embeddingProperties = new EmbeddingProperties();
+        embeddingProperties.getCache().setEnabled(false);
+        EmbeddingCache cache = new EmbeddingCache(embeddingProperties, mock(EmbeddingCacheRepository.class),
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+        return new OpenAIEmbeddingClient(properties, new RestTemplateBuilder(mockServer), cache,
+                new SimpleMeterRegistry());
+    }
+
+    private static String response(int dimensions) {
+        String values = String.join(",", Collections.nCopies(dimensions, "0.01"));
+        return """
+                {"object":"list","data":[{"object":"embedding","index":0,"embedding":[%s]}]}
+                """.formatted(values);
+    }
+}